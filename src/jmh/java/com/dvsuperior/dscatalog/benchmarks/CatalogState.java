@@ -0,0 +1,60 @@
+package com.dvsuperior.dscatalog.benchmarks;
+
+import com.dvsuperior.dscatalog.DscatalogApplication;
+import com.dvsuperior.dscatalog.seed.CatalogSeed;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Boots the application against a private in-memory H2 database and seeds it with
+ * {@code productCount} extra products on top of import.sql. Override the size with
+ * {@code -p productCount=...} on the JMH command line.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    // import.sql only has 3 categories, far too coarse for realistic category filters
+    private static final int EXTRA_CATEGORIES = 50;
+
+    @Param({"1000", "100000"})
+    public int productCount;
+
+    public ConfigurableApplicationContext context;
+    public long minProductId;
+    public long maxProductId;
+    public List<Long> categoryIds;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(DscatalogApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench" + productCount + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        CatalogSeed seed = CatalogSeed.seed(context.getBean(JdbcTemplate.class), productCount, EXTRA_CATEGORIES, 42);
+        categoryIds = seed.getCategoryIds();
+        minProductId = seed.getMinProductId();
+        maxProductId = seed.getMaxProductId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,33 @@
+package com.dvsuperior.dscatalog.benchmarks;
+
+import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.services.CategoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CategoryServiceBenchmark {
+
+    @Benchmark
+    public Page<CategoryDTO> findAllPaged(CatalogState state) {
+        return state.bean(CategoryService.class).findAllPaged(PageRequest.of(0, 12));
+    }
+
+    @Benchmark
+    public CategoryDTO findById(CatalogState state) {
+        return state.bean(CategoryService.class).findById(2L);
+    }
+}
@@ -0,0 +1,69 @@
+package com.dvsuperior.dscatalog.benchmarks;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.DTO.ProductSummaryDTO;
+import com.dvsuperior.dscatalog.repositories.ProductFilter;
+import com.dvsuperior.dscatalog.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Products in category X between price A and B, newest first" against growing catalogs. Compare
+ * the scores across {@code productCount} values: with the price, date and
+ * (category_id, product_id) indexes the cost should follow the size of the match, not the table.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductFilterBenchmark {
+
+    private static final Pageable NEWEST_FIRST = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "date"));
+    private static final Instant FIRST_DATE = Instant.parse("2020-07-14T10:00:00Z");
+
+    @Benchmark
+    public Page<ProductSummaryDTO> categoryAndPriceRange(CatalogState state) {
+        return state.bean(ProductService.class).findAllSummaries(categoryAndPrice(state), NEWEST_FIRST);
+    }
+
+    @Benchmark
+    public Page<ProductSummaryDTO> narrowPriceRange(CatalogState state) {
+        double min = ThreadLocalRandom.current().nextInt(10, 4900);
+        ProductFilter filter = new ProductFilter(null, min, min + 10, null, null);
+        return state.bean(ProductService.class).findAllSummaries(filter, NEWEST_FIRST);
+    }
+
+    @Benchmark
+    public Page<ProductSummaryDTO> lastMonth(CatalogState state) {
+        Instant from = FIRST_DATE.plus(ThreadLocalRandom.current().nextInt(30, 1000), ChronoUnit.DAYS);
+        ProductFilter filter = new ProductFilter(null, null, null, from, from.plus(30, ChronoUnit.DAYS));
+        return state.bean(ProductService.class).findAllSummaries(filter, NEWEST_FIRST);
+    }
+
+    @Benchmark
+    public Page<ProductDTO> categoryAndPriceRangeFull(CatalogState state) {
+        return state.bean(ProductService.class).findAllPaged(categoryAndPrice(state), NEWEST_FIRST);
+    }
+
+    private static ProductFilter categoryAndPrice(CatalogState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long categoryId = state.categoryIds.get(random.nextInt(state.categoryIds.size()));
+        double min = random.nextInt(10, 4500);
+        return new ProductFilter(categoryId, min, min + 500, null, null);
+    }
+}
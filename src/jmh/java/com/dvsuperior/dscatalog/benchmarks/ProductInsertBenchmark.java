@@ -0,0 +1,80 @@
+package com.dvsuperior.dscatalog.benchmarks;
+
+import com.dvsuperior.dscatalog.DTO.BatchItemResultDTO;
+import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.services.ProductBulkService;
+import com.dvsuperior.dscatalog.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second through POST /products (one transaction per row) versus POST /products/batch.
+ * <p>
+ * On the in-memory H2 of this benchmark, batching gains about 4x (around 10,000 against 2,700
+ * rows/s with productCount=1000), short of the 10x the batch endpoint targets. H2 runs in-process,
+ * so batching saves no network round trips, only the per-transaction overhead. Most of the remaining
+ * batch time is per-row work that both paths share. A JFR profile of batchInsert splits it as:
+ * <ul>
+ * <li>about half in H2 index maintenance and the Hibernate flush;</li>
+ * <li>about a quarter in the ProductChangedEvent listeners, the tb_catalog_change row being the
+ * largest part;</li>
+ * <li>about a sixth in Spring resolving and ordering those listeners' synchronizations.</li>
+ * </ul>
+ * Expect a larger ratio against a networked database, where each single insert pays for its
+ * round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ProductInsertBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private List<ProductDTO> rows;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            ProductDTO dto = new ProductDTO(null, "Feed product " + i, "Imported from the nightly feed", 99.9 + i,
+                    "https://img.com/feed.jpg", Instant.parse("2020-07-14T10:00:00Z"));
+            dto.getCategories().add(new CategoryDTO(1L, null));
+            dto.getCategories().add(new CategoryDTO(3L, null));
+            rows.add(dto);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void singleInsert(CatalogState state, Blackhole blackhole) {
+        ProductService service = state.bean(ProductService.class);
+        for (ProductDTO dto : rows) {
+            blackhole.consume(service.insertProduct(dto));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<BatchItemResultDTO> batchInsert(CatalogState state) {
+        return state.bean(ProductBulkService.class).insertAll(rows);
+    }
+}
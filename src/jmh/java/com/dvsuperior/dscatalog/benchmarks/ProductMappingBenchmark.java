@@ -0,0 +1,75 @@
+package com.dvsuperior.dscatalog.benchmarks;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.entities.Category;
+import com.dvsuperior.dscatalog.entities.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pure in-memory costs of the read path: entity to DTO mapping and the Jackson
+ * serialization of the page envelope returned by GET /products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    @Param({"12", "100"})
+    public int pageSize;
+
+    private Product product;
+    private Page<ProductDTO> page;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        product = new Product(1L, "PC Gamer", "Lorem ipsum dolor sit amet, consectetur adipiscing elit.", 1250.0,
+                "https://img.com/1.jpg", Instant.parse("2020-07-14T10:00:00Z"));
+        product.getCategories().add(new Category(1L, "Livros"));
+        product.getCategories().add(new Category(2L, "Eletrônicos"));
+        product.getCategories().add(new Category(3L, "Computadores"));
+
+        List<ProductDTO> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(new ProductDTO(product, product.getCategories()));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+
+        // same defaults Spring Boot applies to the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public ProductDTO productDtoWithCategories() {
+        return new ProductDTO(product, product.getCategories());
+    }
+
+    @Benchmark
+    public byte[] serializeProductPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
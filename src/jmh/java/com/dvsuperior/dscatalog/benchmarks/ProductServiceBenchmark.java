@@ -0,0 +1,43 @@
+package com.dvsuperior.dscatalog.benchmarks;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Benchmark
+    public Page<ProductDTO> findAllPagedFirstPage(CatalogState state) {
+        return state.bean(ProductService.class).findAllPaged(PageRequest.of(0, 12, Sort.by("name")));
+    }
+
+    @Benchmark
+    public Page<ProductDTO> findAllPagedRandomPage(CatalogState state) {
+        int pages = Math.max(1, (int) ((state.maxProductId - state.minProductId + 1) / 12));
+        int page = ThreadLocalRandom.current().nextInt(pages);
+        return state.bean(ProductService.class).findAllPaged(PageRequest.of(page, 12, Sort.by("name")));
+    }
+
+    @Benchmark
+    public ProductDTO findById(CatalogState state) {
+        long id = ThreadLocalRandom.current().nextLong(state.minProductId, state.maxProductId + 1);
+        return state.bean(ProductService.class).findById(id);
+    }
+}
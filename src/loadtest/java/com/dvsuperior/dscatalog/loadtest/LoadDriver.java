@@ -0,0 +1,140 @@
+package com.dvsuperior.dscatalog.loadtest;
+
+import com.dvsuperior.dscatalog.loadtest.Workload.Call;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the workload for a fixed duration using one of two arrival models.
+ * <p>
+ * Closed loop: {@code clients} threads each wait for a response before sending the next request.
+ * With a {@code rate}, every client follows a fixed schedule of {@code clients / rate} seconds
+ * per request and latency is measured from the scheduled send time; without one, clients run
+ * flat out and there is no schedule to correct against.
+ * <p>
+ * Open loop: requests are dispatched at a constant {@code rate} regardless of how many are still
+ * outstanding, which is how independent users actually arrive.
+ */
+public class LoadDriver {
+
+    private final LoadTestConfig config;
+    private final Workload workload;
+    private final HttpClient client;
+
+    public LoadDriver(LoadTestConfig config, Workload workload) {
+        this.config = config;
+        this.workload = workload;
+        // HTTP/1.1 explicitly: the default would try an h2c upgrade on every new connection
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.getTimeout())
+                .build();
+    }
+
+    public boolean isCorrected() {
+        return config.getModel() == LoadTestConfig.Model.OPEN || config.getRate() > 0;
+    }
+
+    public LoadResults run(Duration duration, long seed) throws InterruptedException {
+        return config.getModel() == LoadTestConfig.Model.OPEN ? runOpen(duration, seed) : runClosed(duration, seed);
+    }
+
+    private LoadResults runClosed(Duration duration, long seed) throws InterruptedException {
+        LoadResults results = new LoadResults();
+        int clients = config.getClients();
+        long interval = config.getRate() > 0 ? (long) (clients * 1e9 / config.getRate()) : 0;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            SplittableRandom random = new SplittableRandom(seed + i);
+            // stagger paced clients so they do not all fire on the same tick
+            long firstSend = start + (interval * i) / clients;
+            pool.execute(() -> {
+                long intended = firstSend;
+                while (true) {
+                    if (interval > 0) {
+                        parkUntil(intended);
+                    } else {
+                        intended = System.nanoTime();
+                    }
+                    if (intended >= end) {
+                        return;
+                    }
+                    Call call = workload.next(random);
+                    long sent = System.nanoTime();
+                    int status = send(call);
+                    long done = System.nanoTime();
+                    results.record(call.getOperation(), done - intended, done - sent, status);
+                    intended += interval;
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(duration.plus(config.getTimeout()).toSeconds() + 10, TimeUnit.SECONDS);
+        results.finish(System.nanoTime() - start);
+        return results;
+    }
+
+    private LoadResults runOpen(Duration duration, long seed) throws InterruptedException {
+        LoadResults results = new LoadResults();
+        SplittableRandom random = new SplittableRandom(seed);
+        AtomicLong pending = new AtomicLong();
+        long interval = (long) (1e9 / config.getRate());
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long intended = start; intended < end; intended += interval) {
+            parkUntil(intended);
+            Call call = workload.next(random);
+            long scheduled = intended;
+            long sent = System.nanoTime();
+            pending.incrementAndGet();
+            client.sendAsync(call.getRequest(), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        if (response != null) {
+                            workload.completed(call, response);
+                        }
+                        results.record(call.getOperation(), done - scheduled, done - sent,
+                                response != null ? response.statusCode() : 0);
+                        pending.decrementAndGet();
+                    });
+        }
+        // every request has a timeout, so the stragglers are bounded
+        long drainDeadline = System.nanoTime() + config.getTimeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (pending.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        results.finish(System.nanoTime() - start);
+        return results;
+    }
+
+    private int send(Call call) {
+        try {
+            HttpResponse<byte[]> response = client.send(call.getRequest(), HttpResponse.BodyHandlers.ofByteArray());
+            workload.completed(call, response);
+            return response.statusCode();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private static void parkUntil(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.dvsuperior.dscatalog.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one run, per operation, in microseconds. Response time is measured from when the
+ * request was scheduled to be sent, so time spent waiting behind a slow response is charged to
+ * the requests that had to wait (the coordinated-omission correction). Service time is measured
+ * from when the request actually went out and is what a naive load generator would report.
+ */
+public class LoadResults {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private long elapsedNanos;
+
+    public LoadResults() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * @param status the HTTP status, or 0 when the request failed or timed out
+     */
+    public void record(Operation operation, long responseNanos, long serviceNanos, int status) {
+        OperationStats operationStats = stats.get(operation);
+        operationStats.responseTime.recordValue(Math.max(1, responseNanos / 1000));
+        operationStats.serviceTime.recordValue(Math.max(1, serviceNanos / 1000));
+        boolean ok = (status >= 200 && status < 300) || status == 304;
+        (ok ? operationStats.ok : operationStats.errors).increment();
+    }
+
+    public void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Builds the machine-readable report. Each histogram is also included in HdrHistogram's
+     * compressed base64 form, so runs can be merged or re-analysed later with
+     * {@code Histogram.decodeFromCompressedByteBuffer}.
+     */
+    public Map<String, Object> report(boolean corrected) {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Histogram totalResponse = new Histogram(3);
+        Histogram totalService = new Histogram(3);
+        long totalOk = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram response = entry.getValue().responseTime.getIntervalHistogram();
+            Histogram service = entry.getValue().serviceTime.getIntervalHistogram();
+            long ok = entry.getValue().ok.sum();
+            long errors = entry.getValue().errors.sum();
+            if (ok + errors == 0) {
+                continue;
+            }
+            operations.put(entry.getKey().getKey(), operationReport(ok, errors, seconds, response, service));
+            totalResponse.add(response);
+            totalService.add(service);
+            totalOk += ok;
+            totalErrors += errors;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("elapsedSeconds", seconds);
+        report.put("coordinatedOmissionCorrected", corrected);
+        report.put("total", operationReport(totalOk, totalErrors, seconds, totalResponse, totalService));
+        report.put("operations", operations);
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void print(Map<String, Object> report, PrintStream out) {
+        out.printf("%-16s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) report.get("operations"));
+        rows.put("TOTAL", report.get("total"));
+        for (Map.Entry<String, Object> row : rows.entrySet()) {
+            Map<String, Object> values = (Map<String, Object>) row.getValue();
+            Map<String, Object> latency = (Map<String, Object>) values.get("responseTime");
+            out.printf("%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", row.getKey(),
+                    values.get("requests"), values.get("errors"), values.get("throughput"),
+                    latency.get("p50"), latency.get("p99"), latency.get("p99.9"), latency.get("max"));
+        }
+    }
+
+    private static Map<String, Object> operationReport(long ok, long errors, double seconds,
+                                                       Histogram response, Histogram service) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", ok + errors);
+        report.put("errors", errors);
+        report.put("throughput", seconds > 0 ? ok / seconds : 0.0);
+        report.put("responseTime", latencyReport(response));
+        report.put("serviceTime", latencyReport(service));
+        return report;
+    }
+
+    // milliseconds, rounded to microseconds
+    private static Map<String, Object> latencyReport(Histogram histogram) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("mean", histogram.getMean() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            String key = percentile == Math.rint(percentile) ? "p" + (int) percentile : "p" + percentile;
+            report.put(key, histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        report.put("max", histogram.getMaxValue() / 1000.0);
+        report.put("histogram", encode(histogram));
+        return report;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static final class OperationStats {
+        private final Recorder responseTime = new Recorder(3);
+        private final Recorder serviceTime = new Recorder(3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
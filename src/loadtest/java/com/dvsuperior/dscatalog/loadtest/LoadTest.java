@@ -0,0 +1,71 @@
+package com.dvsuperior.dscatalog.loadtest;
+
+import com.dvsuperior.dscatalog.DscatalogApplication;
+import com.dvsuperior.dscatalog.seed.CatalogSeed;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots the application on a random port over a seeded in-memory catalog, drives it with the
+ * configured traffic mix and writes the results as JSON under {@code out} (target/loadtest by
+ * default). Run it with the loadtest profile, for example
+ * {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="model=open rate=500 duration=2m"}.
+ * <p>
+ * Settings: model (closed|open), clients, rate (requests/s), warmup, duration, timeout,
+ * products, categories, seed, mix (see {@link OperationMix#DEFAULT}) and out.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        try (ConfigurableApplicationContext context = start()) {
+            CatalogSeed seed = CatalogSeed.seed(context.getBean(JdbcTemplate.class),
+                    config.getProductCount(), config.getCategoryCount(), config.getSeed());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Workload workload = new Workload(URI.create("http://localhost:" + port), config.getTimeout(),
+                    config.getMix(), seed);
+            LoadDriver driver = new LoadDriver(config, workload);
+
+            System.out.println("Warming up for " + config.getWarmup().toSeconds() + "s");
+            driver.run(config.getWarmup(), config.getSeed() * 31);
+            System.out.println("Measuring for " + config.getDuration().toSeconds() + "s, " + config.toMap());
+            Instant startedAt = Instant.now();
+            LoadResults results = driver.run(config.getDuration(), config.getSeed());
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("startedAt", startedAt.toString());
+            report.put("config", config.toMap());
+            report.putAll(results.report(driver.isCorrected()));
+            LoadResults.print(report, System.out);
+            System.out.println("Results written to " + write(config.getOutput(), startedAt, report));
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DscatalogApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static Path write(Path directory, Instant startedAt, Map<String, Object> report) throws Exception {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("loadtest-" + startedAt.getEpochSecond() + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        return file;
+    }
+}
@@ -0,0 +1,140 @@
+package com.dvsuperior.dscatalog.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Run settings, given as {@code key=value} program arguments (see the loadtest profile in pom.xml).
+ */
+public class LoadTestConfig {
+
+    public enum Model {
+        CLOSED, OPEN
+    }
+
+    private Model model = Model.CLOSED;
+    private int clients = 32;
+    private double rate;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration timeout = Duration.ofSeconds(10);
+    private int productCount = 10_000;
+    private int categoryCount = 50;
+    private long seed = 42;
+    private String mixSpec = OperationMix.DEFAULT;
+    private OperationMix mix = OperationMix.parse(OperationMix.DEFAULT);
+    private Path output = Path.of("target", "loadtest");
+
+    public static LoadTestConfig parse(String... args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected key=value but got '" + arg + "'");
+            }
+            config.set(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        if (config.model == Model.OPEN && config.rate <= 0) {
+            throw new IllegalArgumentException("The open model needs rate=<requests per second>");
+        }
+        return config;
+    }
+
+    private void set(String key, String value) {
+        switch (key) {
+            case "model" -> model = Model.valueOf(value.toUpperCase());
+            case "clients" -> clients = Integer.parseInt(value);
+            case "rate" -> rate = Double.parseDouble(value);
+            case "warmup" -> warmup = parseDuration(value);
+            case "duration" -> duration = parseDuration(value);
+            case "timeout" -> timeout = parseDuration(value);
+            case "products" -> productCount = Integer.parseInt(value);
+            case "categories" -> categoryCount = Integer.parseInt(value);
+            case "seed" -> seed = Long.parseLong(value);
+            case "mix" -> {
+                mixSpec = value;
+                mix = OperationMix.parse(value);
+            }
+            case "out" -> output = Path.of(value);
+            default -> throw new IllegalArgumentException("Unknown setting '" + key + "'");
+        }
+    }
+
+    // 30s, 500ms, 2m or a plain number of seconds
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("model", model.name().toLowerCase());
+        map.put("clients", clients);
+        map.put("rate", rate);
+        map.put("warmupSeconds", warmup.toMillis() / 1000.0);
+        map.put("durationSeconds", duration.toMillis() / 1000.0);
+        map.put("timeoutSeconds", timeout.toMillis() / 1000.0);
+        map.put("products", productCount);
+        map.put("categories", categoryCount);
+        map.put("seed", seed);
+        map.put("mix", mixSpec);
+        return map;
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    /**
+     * Target requests per second across all clients; 0 lets closed-loop clients run unpaced.
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public int getProductCount() {
+        return productCount;
+    }
+
+    public int getCategoryCount() {
+        return categoryCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public OperationMix getMix() {
+        return mix;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+}
@@ -0,0 +1,37 @@
+package com.dvsuperior.dscatalog.loadtest;
+
+/**
+ * One kind of request in the traffic mix, named the way it is written in {@code mix=...}.
+ */
+public enum Operation {
+
+    LIST_PRODUCTS("listProducts"),
+    GET_PRODUCT("getProduct"),
+    INSERT_PRODUCT("insertProduct"),
+    UPDATE_PRODUCT("updateProduct"),
+    DELETE_PRODUCT("deleteProduct"),
+    LIST_CATEGORIES("listCategories"),
+    GET_CATEGORY("getCategory"),
+    INSERT_CATEGORY("insertCategory"),
+    UPDATE_CATEGORY("updateCategory"),
+    DELETE_CATEGORY("deleteCategory");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation of(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "'");
+    }
+}
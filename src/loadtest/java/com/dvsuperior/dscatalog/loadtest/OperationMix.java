@@ -0,0 +1,65 @@
+package com.dvsuperior.dscatalog.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted choice between operations, parsed from {@code listProducts:40,getProduct:25,...}.
+ * Weights are relative; operations left out are never sent.
+ */
+public class OperationMix {
+
+    public static final String DEFAULT = "listProducts:35,getProduct:25,insertProduct:8,updateProduct:8,deleteProduct:4,"
+            + "listCategories:10,getCategory:6,insertCategory:2,updateCategory:1,deleteCategory:1";
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulative;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        operations = weights.keySet().toArray(new Operation[0]);
+        cumulative = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulative[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Operation mix has no positive weight");
+        }
+    }
+
+    public static OperationMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            if (weight > 0) {
+                weights.put(Operation.of(parts[0].trim()), weight);
+            }
+        }
+        return new OperationMix(weights);
+    }
+
+    public Operation next(SplittableRandom random) {
+        int value = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (value < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    public Map<Operation, Integer> getWeights() {
+        return weights;
+    }
+}
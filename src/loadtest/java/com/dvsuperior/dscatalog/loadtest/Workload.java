@@ -0,0 +1,158 @@
+package com.dvsuperior.dscatalog.loadtest;
+
+import com.dvsuperior.dscatalog.seed.CatalogSeed;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Turns operations into HTTP requests against the running application. Reads and updates target
+ * the seeded catalog; deletes only remove rows this run inserted, so the seeded data set (and
+ * the error rate of the other operations) stays stable. A delete drawn before anything was
+ * inserted is sent as an insert instead.
+ */
+public class Workload {
+
+    private static final String[] SORTS = {"name,asc", "price,desc", "date,desc", "id,asc"};
+
+    private final URI baseUri;
+    private final Duration timeout;
+    private final OperationMix mix;
+    private final CatalogSeed seed;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Queue<Long> insertedProducts = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> insertedCategories = new ConcurrentLinkedQueue<>();
+
+    public Workload(URI baseUri, Duration timeout, OperationMix mix, CatalogSeed seed) {
+        this.baseUri = baseUri;
+        this.timeout = timeout;
+        this.mix = mix;
+        this.seed = seed;
+    }
+
+    public Call next(SplittableRandom random) {
+        Operation operation = mix.next(random);
+        if (operation == Operation.DELETE_PRODUCT) {
+            Long id = insertedProducts.poll();
+            return id == null ? productInsert(random) : new Call(operation, delete("/products/" + id));
+        }
+        if (operation == Operation.DELETE_CATEGORY) {
+            Long id = insertedCategories.poll();
+            return id == null ? categoryInsert(random) : new Call(operation, delete("/categories/" + id));
+        }
+        return switch (operation) {
+            case LIST_PRODUCTS -> new Call(operation, get("/products?page=" + random.nextInt(5)
+                    + "&size=12&sort=" + SORTS[random.nextInt(SORTS.length)]));
+            case GET_PRODUCT -> new Call(operation, get("/products/" + productId(random)));
+            case INSERT_PRODUCT -> productInsert(random);
+            case UPDATE_PRODUCT -> new Call(operation, send("PUT", "/products/" + productId(random), product(random)));
+            case LIST_CATEGORIES -> new Call(operation, get("/categories?page=0&size=20&sort=name,asc"));
+            case GET_CATEGORY -> new Call(operation, get("/categories/" + categoryId(random)));
+            case INSERT_CATEGORY -> categoryInsert(random);
+            case UPDATE_CATEGORY -> new Call(operation, send("PUT", "/categories/" + categoryId(random), category(random)));
+            default -> throw new IllegalStateException(operation.name());
+        };
+    }
+
+    /**
+     * Remembers ids created by inserts so later deletes have something of their own to remove.
+     */
+    public void completed(Call call, HttpResponse<?> response) {
+        if (response.statusCode() != 201) {
+            return;
+        }
+        Queue<Long> inserted = call.getOperation() == Operation.INSERT_PRODUCT ? insertedProducts
+                : call.getOperation() == Operation.INSERT_CATEGORY ? insertedCategories : null;
+        if (inserted != null) {
+            response.headers().firstValue("Location")
+                    .map(location -> location.substring(location.lastIndexOf('/') + 1))
+                    .ifPresent(id -> inserted.offer(Long.valueOf(id)));
+        }
+    }
+
+    private Call productInsert(SplittableRandom random) {
+        return new Call(Operation.INSERT_PRODUCT, send("POST", "/products", product(random)));
+    }
+
+    private Call categoryInsert(SplittableRandom random) {
+        return new Call(Operation.INSERT_CATEGORY, send("POST", "/categories", category(random)));
+    }
+
+    private long productId(SplittableRandom random) {
+        return random.nextLong(seed.getMinProductId(), seed.getMaxProductId() + 1);
+    }
+
+    private long categoryId(SplittableRandom random) {
+        return seed.getCategoryIds().get(random.nextInt(seed.getCategoryIds().size()));
+    }
+
+    private Map<String, Object> product(SplittableRandom random) {
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("name", "Load product " + random.nextInt(1_000_000));
+        product.put("description", "Written by the load test");
+        product.put("price", 10.0 + random.nextInt(500_000) / 100.0);
+        product.put("imgUrl", "https://img.com/load.jpg");
+        product.put("date", Instant.now().toString());
+        product.put("categories", List.of(Map.of("id", categoryId(random))));
+        return product;
+    }
+
+    private Map<String, Object> category(SplittableRandom random) {
+        return Map.of("name", "Load category " + random.nextInt(1_000_000));
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest delete(String path) {
+        return builder(path).DELETE().build();
+    }
+
+    private HttpRequest send(String method, String path, Object body) {
+        try {
+            return builder(path)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+    }
+
+    public static final class Call {
+        private final Operation operation;
+        private final HttpRequest request;
+
+        private Call(Operation operation, HttpRequest request) {
+            this.operation = operation;
+            this.request = request;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public HttpRequest getRequest() {
+            return request;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.dvsuperior.dscatalog.DTO;
+
+public class BatchItemResultDTO {
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String FAILED = "FAILED";
+
+    private int index;
+    private Long id;
+    private String status;
+    private String message;
+
+    public BatchItemResultDTO() {
+    }
+
+    public BatchItemResultDTO(int index, Long id, String status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BatchItemResultDTO created(int index, Long id) {
+        return new BatchItemResultDTO(index, id, CREATED, null);
+    }
+
+    public static BatchItemResultDTO updated(int index, Long id) {
+        return new BatchItemResultDTO(index, id, UPDATED, null);
+    }
+
+    public static BatchItemResultDTO failed(int index, Long id, String message) {
+        return new BatchItemResultDTO(index, id, FAILED, message);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,49 @@
+package com.dvsuperior.dscatalog.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkDeleteResultDTO {
+    // upper bound on ids per request, keeps every IN (...) list within driver bind-parameter limits
+    public static final int MAX_IDS = 10_000;
+
+    private List<Long> deleted = new ArrayList<>();
+    private List<Long> missing = new ArrayList<>();
+    private List<Long> blocked = new ArrayList<>();
+
+    public BulkDeleteResultDTO() {
+    }
+
+    public BulkDeleteResultDTO(List<Long> deleted, List<Long> missing, List<Long> blocked) {
+        this.deleted = deleted;
+        this.missing = missing;
+        this.blocked = blocked;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    public List<Long> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<Long> missing) {
+        this.missing = missing;
+    }
+
+    /**
+     * Ids that exist but are still referenced, e.g. categories that have products.
+     */
+    public List<Long> getBlocked() {
+        return blocked;
+    }
+
+    public void setBlocked(List<Long> blocked) {
+        this.blocked = blocked;
+    }
+}
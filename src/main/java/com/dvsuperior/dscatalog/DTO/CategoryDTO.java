@@ -2,9 +2,13 @@ package com.dvsuperior.dscatalog.DTO;
 
 import com.dvsuperior.dscatalog.entities.Category;
 
+import java.time.Instant;
+
 public class CategoryDTO {
     private long id;
     private String name;
+    private Instant createdAt;
+    private Instant updatedAt;
 
     public CategoryDTO() {
     }
@@ -17,6 +21,15 @@ public class CategoryDTO {
     public CategoryDTO(Category entity) {
         this.id = entity.getId();
         this.name = entity.getName();
+        this.createdAt = entity.getCreatedAt();
+        this.updatedAt = entity.getUpdatedAt();
+    }
+
+    public CategoryDTO(CategoryDTO other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
     }
 
     public long getId() {
@@ -34,4 +47,12 @@ public class CategoryDTO {
     public void setName(String name) {
         this.name = name;
     }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
 }
@@ -0,0 +1,61 @@
+package com.dvsuperior.dscatalog.DTO;
+
+public class CategoryStatsDTO {
+    private long categoryId;
+    private long productCount;
+    // null while the category has no priced product
+    private Double minPrice;
+    private Double maxPrice;
+    private Double avgPrice;
+
+    public CategoryStatsDTO() {
+    }
+
+    public CategoryStatsDTO(long categoryId, long productCount, Double minPrice, Double maxPrice, Double avgPrice) {
+        this.categoryId = categoryId;
+        this.productCount = productCount;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.avgPrice = avgPrice;
+    }
+
+    public long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(long productCount) {
+        this.productCount = productCount;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Double getAvgPrice() {
+        return avgPrice;
+    }
+
+    public void setAvgPrice(Double avgPrice) {
+        this.avgPrice = avgPrice;
+    }
+}
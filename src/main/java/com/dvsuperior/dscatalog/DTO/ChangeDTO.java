@@ -0,0 +1,57 @@
+package com.dvsuperior.dscatalog.DTO;
+
+import com.dvsuperior.dscatalog.entities.CatalogChange;
+
+import java.time.Instant;
+
+public class ChangeDTO {
+    private Long cursor;
+    private CatalogChange.EntityType entityType;
+    private Long id;
+    private CatalogChange.Operation operation;
+    private Instant changedAt;
+    // current state of the row when the feed is read; absent for deletes and for rows deleted since
+    private ProductDTO product;
+    private CategoryDTO category;
+
+    public ChangeDTO() {
+    }
+
+    public ChangeDTO(CatalogChange entity, ProductDTO product, CategoryDTO category) {
+        this.cursor = entity.getId();
+        this.entityType = entity.getEntityType();
+        this.id = entity.getEntityId();
+        this.operation = entity.getOperation();
+        this.changedAt = entity.getChangedAt();
+        this.product = product;
+        this.category = category;
+    }
+
+    public Long getCursor() {
+        return cursor;
+    }
+
+    public CatalogChange.EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public CatalogChange.Operation getOperation() {
+        return operation;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public ProductDTO getProduct() {
+        return product;
+    }
+
+    public CategoryDTO getCategory() {
+        return category;
+    }
+}
@@ -0,0 +1,32 @@
+package com.dvsuperior.dscatalog.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChangeFeedDTO {
+    private List<ChangeDTO> changes = new ArrayList<>();
+    // pass back as since= to continue; equals the request cursor when there was nothing new
+    private long next;
+    private boolean hasMore;
+
+    public ChangeFeedDTO() {
+    }
+
+    public ChangeFeedDTO(List<ChangeDTO> changes, long next, boolean hasMore) {
+        this.changes = changes;
+        this.next = next;
+        this.hasMore = hasMore;
+    }
+
+    public List<ChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public long getNext() {
+        return next;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,43 @@
+package com.dvsuperior.dscatalog.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CursorPageDTO<T> {
+    private List<T> content = new ArrayList<>();
+    private int size;
+    private String next;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, int size, String next) {
+        this.content = content;
+        this.size = size;
+        this.next = next;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
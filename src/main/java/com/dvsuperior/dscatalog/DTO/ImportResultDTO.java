@@ -0,0 +1,54 @@
+package com.dvsuperior.dscatalog.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResultDTO {
+    // only the first failures are kept, so the summary stays small for any file size
+    public static final int MAX_ERRORS = 100;
+
+    private long processed;
+    private long imported;
+    private long failed;
+    private int chunks;
+    private List<BatchItemResultDTO> errors = new ArrayList<>();
+
+    public ImportResultDTO() {
+    }
+
+    public void add(BatchItemResultDTO result) {
+        processed++;
+        if (BatchItemResultDTO.FAILED.equals(result.getStatus())) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(result);
+            }
+        } else {
+            imported++;
+        }
+    }
+
+    public void chunkCommitted() {
+        chunks++;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public List<BatchItemResultDTO> getErrors() {
+        return errors;
+    }
+}
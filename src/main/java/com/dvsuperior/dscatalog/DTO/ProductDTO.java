@@ -16,6 +16,8 @@ public class ProductDTO {
     private Double price;
     private String imgUrl;
     private Instant date;
+    private Instant createdAt;
+    private Instant updatedAt;
 
     private List<CategoryDTO> categories = new ArrayList<>();
 
@@ -38,6 +40,8 @@ public class ProductDTO {
         this.price = entity.getPrice();
         this.imgUrl = entity.getImgUrl();
         this.date = entity.getDate();
+        this.createdAt = entity.getCreatedAt();
+        this.updatedAt = entity.getUpdatedAt();
     }
 
     public ProductDTO(Product entity, Set<Category> categories) {
@@ -93,6 +97,14 @@ public class ProductDTO {
         this.date = date;
     }
 
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
     public List<CategoryDTO> getCategories() {
         return categories;
     }
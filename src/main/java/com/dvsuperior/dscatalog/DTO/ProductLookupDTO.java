@@ -0,0 +1,39 @@
+package com.dvsuperior.dscatalog.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductLookupDTO {
+    // a page render asks for 20-100 ids; anything much larger belongs in a listing or export
+    public static final int MAX_IDS = 1000;
+
+    private List<ProductDTO> content = new ArrayList<>();
+    private List<Long> missing = new ArrayList<>();
+
+    public ProductLookupDTO() {
+    }
+
+    public ProductLookupDTO(List<ProductDTO> content, List<Long> missing) {
+        this.content = content;
+        this.missing = missing;
+    }
+
+    /**
+     * Found products, in the order their ids were requested.
+     */
+    public List<ProductDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ProductDTO> content) {
+        this.content = content;
+    }
+
+    public List<Long> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<Long> missing) {
+        this.missing = missing;
+    }
+}
@@ -0,0 +1,68 @@
+package com.dvsuperior.dscatalog.DTO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Body of PATCH /products/{id}: fields left out (or null) keep their current value. A non-null
+ * categories list replaces the product's categories; only the ids are read.
+ */
+public class ProductPatchDTO {
+    private String name;
+    private String description;
+    private Double price;
+    private String imgUrl;
+    private Instant date;
+    private List<CategoryDTO> categories;
+
+    public ProductPatchDTO() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+
+    public void setImgUrl(String imgUrl) {
+        this.imgUrl = imgUrl;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public void setDate(Instant date) {
+        this.date = date;
+    }
+
+    public List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryDTO> categories) {
+        this.categories = categories;
+    }
+}
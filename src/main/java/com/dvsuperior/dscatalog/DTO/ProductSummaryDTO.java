@@ -0,0 +1,66 @@
+package com.dvsuperior.dscatalog.DTO;
+
+import java.time.Instant;
+
+/**
+ * Listing row without the description and categories. Built straight from a JPQL constructor
+ * expression, so no entity is hydrated or registered in the persistence context.
+ */
+public class ProductSummaryDTO {
+    private Long id;
+    private String name;
+    private Double price;
+    private String imgUrl;
+    private Instant date;
+
+    public ProductSummaryDTO() {
+    }
+
+    public ProductSummaryDTO(Long id, String name, Double price, String imgUrl, Instant date) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.imgUrl = imgUrl;
+        this.date = date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+
+    public void setImgUrl(String imgUrl) {
+        this.imgUrl = imgUrl;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public void setDate(Instant date) {
+        this.date = date;
+    }
+}
@@ -0,0 +1,66 @@
+package com.dvsuperior.dscatalog.DTO;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SliceDTO<T> {
+    private List<T> content = new ArrayList<>();
+    private int number;
+    private int size;
+    private boolean hasNext;
+    // only filled in approximate count mode, refreshed in the background
+    private Long approximateTotal;
+
+    public SliceDTO() {
+    }
+
+    public SliceDTO(Slice<T> slice, Long approximateTotal) {
+        this.content = slice.getContent();
+        this.number = slice.getNumber();
+        this.size = slice.getSize();
+        this.hasNext = slice.hasNext();
+        this.approximateTotal = approximateTotal;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public void setNumber(int number) {
+        this.number = number;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Long getApproximateTotal() {
+        return approximateTotal;
+    }
+
+    public void setApproximateTotal(Long approximateTotal) {
+        this.approximateTotal = approximateTotal;
+    }
+}
@@ -0,0 +1,69 @@
+package com.dvsuperior.dscatalog.config;
+
+import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+
+import java.util.Arrays;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Caffeine caches from spring.cache.*, with two changes over the auto-configured manager:
+     * <ul>
+     * <li>puts and evictions inside a transaction wait for its commit, so a read running
+     * concurrently with an update cannot put the old row back after it was evicted;</li>
+     * <li>DTOs are copied going in and coming out, so a caller changing the object it got back
+     * does not change what the next caller reads.</li>
+     * </ul>
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${spring.cache.caffeine.spec}") String spec,
+                                     @Value("${spring.cache.cache-names}") String[] cacheNames) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new TransactionAwareCacheDecorator(new CopyingCaffeineCache(name, cache, isAllowNullValues()));
+            }
+        };
+        cacheManager.setCacheSpecification(spec);
+        cacheManager.setCacheNames(Arrays.asList(cacheNames));
+        return cacheManager;
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof CategoryDTO) {
+            return new CategoryDTO((CategoryDTO) value);
+        }
+        if (value instanceof Page) {
+            return ((Page<?>) value).map(CacheConfig::copy);
+        }
+        return value;
+    }
+
+    private static class CopyingCaffeineCache extends CaffeineCache {
+
+        CopyingCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                             boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        protected Object toStoreValue(Object userValue) {
+            return super.toStoreValue(copy(userValue));
+        }
+
+        @Override
+        protected Object fromStoreValue(Object storeValue) {
+            return copy(super.fromStoreValue(storeValue));
+        }
+    }
+}
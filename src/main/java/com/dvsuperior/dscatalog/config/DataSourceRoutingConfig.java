@@ -0,0 +1,75 @@
+package com.dvsuperior.dscatalog.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Only active when at least one replica is configured (dscatalog.datasource.replicas[0].url);
+ * otherwise Boot's single datasource is used as before.
+ */
+@Configuration
+@ConditionalOnProperty("dscatalog.datasource.replicas[0].url")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    // bound like Boot's own pool: spring.datasource.* first, then spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                 DataSourceRoutingProperties properties) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (DataSourceRoutingProperties.Replica replica : properties.getReplicas()) {
+            HikariConfig config = replica.getHikari();
+            config.setJdbcUrl(replica.getUrl());
+            config.setUsername(replica.getUsername());
+            config.setPassword(replica.getPassword());
+            if (config.getPoolName() == null) {
+                config.setPoolName("replica-" + replicas.size());
+            }
+            config.setReadOnly(true);
+            // the replica pools are not beans, so Boot does not bind their hikaricp.* metrics itself
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(Metrics.globalRegistry));
+            // a replica that is down at startup must not keep the application from starting
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, properties.getReadYourWritesMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(DataSourceRoutingProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesMs()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
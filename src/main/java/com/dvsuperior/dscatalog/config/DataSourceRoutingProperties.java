@@ -0,0 +1,82 @@
+package com.dvsuperior.dscatalog.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * dscatalog.datasource.*: the read replicas. The primary stays under spring.datasource, with its
+ * pool settings under spring.datasource.hikari; each replica has its own under replicas[n].hikari.
+ */
+@ConfigurationProperties("dscatalog.datasource")
+public class DataSourceRoutingProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+    private long readYourWritesMs;
+    private long healthCheckMs;
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public long getReadYourWritesMs() {
+        return readYourWritesMs;
+    }
+
+    public void setReadYourWritesMs(long readYourWritesMs) {
+        this.readYourWritesMs = readYourWritesMs;
+    }
+
+    public long getHealthCheckMs() {
+        return healthCheckMs;
+    }
+
+    public void setHealthCheckMs(long healthCheckMs) {
+        this.healthCheckMs = healthCheckMs;
+    }
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private HikariConfig hikari = new HikariConfig();
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public HikariConfig getHikari() {
+            return hikari;
+        }
+
+        public void setHikari(HikariConfig hikari) {
+            this.hikari = hikari;
+        }
+    }
+}
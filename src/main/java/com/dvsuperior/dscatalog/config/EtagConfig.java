@@ -0,0 +1,23 @@
+package com.dvsuperior.dscatalog.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class EtagConfig {
+
+    /**
+     * Listings have no single version to compare, so their ETag is a hash of the rendered page.
+     * That still turns unchanged polls into body-less 304 responses. Detail endpoints set their
+     * own version-based ETag, which the filter keeps.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/products", "/categories");
+        return registration;
+    }
+}
@@ -0,0 +1,32 @@
+package com.dvsuperior.dscatalog.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between start() and stop().
+ * Registered through hibernate.session_factory.statement_inspector, so Hibernate creates it with
+ * the no-arg constructor; the counter therefore lives in a static ThreadLocal.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    public static long stop() {
+        long[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
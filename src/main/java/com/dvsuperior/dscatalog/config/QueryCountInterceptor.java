@@ -0,0 +1,36 @@
+package com.dvsuperior.dscatalog.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records dscatalog.http.queries, the number of SQL statements each request executed, tagged like
+ * http.server.requests (method + uri template) so the two can be read side by side.
+ */
+public class QueryCountInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCountInspector.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        long queries = QueryCountInspector.stop();
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("dscatalog.http.queries")
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(Metrics.globalRegistry)
+                .record(queries);
+    }
+}
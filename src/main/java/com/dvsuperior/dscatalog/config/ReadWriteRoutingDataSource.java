@@ -0,0 +1,194 @@
+package com.dvsuperior.dscatalog.config;
+
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sends connections for read-only transactions to the replicas, round robin, and everything else
+ * to the primary. Has to sit behind a LazyConnectionDataSourceProxy: the transaction managers
+ * ask for a connection before the transaction is marked read-only, the proxy defers that until
+ * the first statement.
+ * <p>
+ * Reads go to the primary instead when no replica is up, when a replica refuses a connection (it
+ * is then marked down until the next health check) and during the read-your-writes window that
+ * follows a committed read-write transaction.
+ * <p>
+ * The replica pools belong to this data source and are closed with it.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    public static final String COOKIE = "dscatalog-ryw";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long readYourWritesMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, long readYourWritesMs) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).collect(Collectors.toList());
+        this.readYourWritesMs = readYourWritesMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(x -> x.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            onWrite();
+            count("primary");
+            return source.connect(primary);
+        }
+        // reads kept on the primary by the window do not extend it
+        if (ReadYourWrites.isActive()) {
+            count("primary");
+            return source.connect(primary);
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.up) {
+                continue;
+            }
+            try {
+                Connection connection = source.connect(replica.dataSource);
+                count("replica");
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        count("fallback");
+        return source.connect(primary);
+    }
+
+    /**
+     * Brings replicas that answer again back into rotation, and takes out the ones that stopped.
+     */
+    @Scheduled(fixedDelayString = "${dscatalog.datasource.health-check-ms}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(1)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(x -> x.up).count();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private static void count(String target) {
+        Metrics.counter("dscatalog.datasource.route", "target", target).increment();
+    }
+
+    // the window starts once the transaction commits; registered once per transaction
+    private void onWrite() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long until = System.currentTimeMillis() + readYourWritesMs;
+                ReadYourWrites.primaryUntil(until);
+                addCookie(until);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadWriteRoutingDataSource.this);
+            }
+        });
+    }
+
+    // services commit before the controller writes the body, so the response is still open here
+    private void addCookie(long until) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+        HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE, String.valueOf(until));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (readYourWritesMs + 999) / 1000));
+        response.addCookie(cookie);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        private volatile boolean up = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void markDown(SQLException e) {
+            if (up) {
+                LOG.warn("Replica {} is down, reads fall back to the primary", dataSource, e);
+            }
+            up = false;
+        }
+
+        private void markUp() {
+            if (!up) {
+                LOG.info("Replica {} is back", dataSource);
+            }
+            up = true;
+        }
+    }
+}
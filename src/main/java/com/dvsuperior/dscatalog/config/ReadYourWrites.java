@@ -0,0 +1,55 @@
+package com.dvsuperior.dscatalog.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread deadline until which read-only transactions stay on the primary. It is set when a
+ * read-write transaction commits, and carried over to the client's next requests by
+ * ReadYourWritesFilter, so a client never reads from a replica that may not have its own
+ * writes yet.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isActive() {
+        Long until = PRIMARY_UNTIL.get();
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    public static long getUntil() {
+        Long until = PRIMARY_UNTIL.get();
+        return until == null ? 0 : until;
+    }
+
+    public static void primaryUntil(long until) {
+        if (until > getUntil()) {
+            PRIMARY_UNTIL.set(until);
+        }
+    }
+
+    /**
+     * Runs {@code read} with read-only transactions on the primary, for reads that must not lag,
+     * without opening a window for the client.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Long previous = PRIMARY_UNTIL.get();
+        PRIMARY_UNTIL.set(Long.MAX_VALUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_UNTIL.remove();
+            } else {
+                PRIMARY_UNTIL.set(previous);
+            }
+        }
+    }
+
+    public static void clear() {
+        PRIMARY_UNTIL.remove();
+    }
+}
@@ -0,0 +1,46 @@
+package com.dvsuperior.dscatalog.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Restores the read-your-writes window from the cookie set by ReadWriteRoutingDataSource, so
+ * reads that follow a client's write in later requests also go to the primary. The cookie comes
+ * from the client, so the window it asks for is capped at readYourWritesMs from now.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final long readYourWritesMs;
+
+    public ReadYourWritesFilter(long readYourWritesMs) {
+        this.readYourWritesMs = readYourWritesMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (ReadWriteRoutingDataSource.COOKIE.equals(cookie.getName())) {
+                    try {
+                        long until = Long.parseLong(cookie.getValue());
+                        ReadYourWrites.primaryUntil(Math.min(until, System.currentTimeMillis() + readYourWritesMs));
+                    } catch (NumberFormatException e) {
+                        // ignored, reads go to the replicas
+                    }
+                }
+            }
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.dvsuperior.dscatalog.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One committed insert, update or delete of a product or category. Rows are only appended;
+ * the id doubles as the change-feed cursor, and the primary key index serves
+ * {@code WHERE id > :since ORDER BY id}. Deletes stay here as tombstones after the row is gone.
+ */
+@Entity
+@Table(name = "tb_catalog_change")
+public class CatalogChange implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum EntityType {
+        PRODUCT,
+        CATEGORY
+    }
+
+    public enum Operation {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_change_seq")
+    @SequenceGenerator(name = "catalog_change_seq", sequenceName = "tb_catalog_change_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Operation operation;
+
+    @Column(nullable = false, columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant changedAt;
+
+    public CatalogChange() {
+    }
+
+    public CatalogChange(EntityType entityType, Long entityId, Operation operation, Instant changedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.changedAt = changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
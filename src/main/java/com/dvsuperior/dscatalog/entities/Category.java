@@ -1,11 +1,21 @@
 package com.dvsuperior.dscatalog.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "tb_category")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "tb_category", indexes = {
+        @Index(name = "ix_category_name_id", columnList = "name, id")
+})
 public class Category implements Serializable {
     private static final long serialVersionUID = 1L;
 
@@ -19,6 +29,10 @@ public class Category implements Serializable {
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant updatedAt;
 
+    @Version
+    @Column(columnDefinition = "INTEGER DEFAULT 0 NOT NULL")
+    private Integer version;
+
     public Category() {
     }
 
@@ -51,13 +65,18 @@ public class Category implements Serializable {
         return updatedAt;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
+    // microseconds, the column precision, so the managed instance holds what is stored
     @PrePersist
     public void prePersist() {
-        createdAt = Instant.now();
+        createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     @PreUpdate
     public void preUpdate() {
-        updatedAt = Instant.now();
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
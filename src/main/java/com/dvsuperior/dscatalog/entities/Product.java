@@ -2,26 +2,44 @@ package com.dvsuperior.dscatalog.entities;
 
 import java.io.Serializable;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 @Entity
-@Table(name = "tb_product")
+// UPDATEs list only the changed columns, so a price change does not rewrite the description
+@DynamicUpdate
+@Table(name = "tb_product", indexes = {
+        @Index(name = "ix_product_name_id", columnList = "name, id"),
+        @Index(name = "ix_product_price_id", columnList = "price, id"),
+        @Index(name = "ix_product_date_id", columnList = "date, id")
+})
 public class Product implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    // pooled sequence instead of IDENTITY so Hibernate can batch INSERTs (see hibernate.jdbc.batch_size)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "tb_product_seq", allocationSize = 50)
     private Long id;
     private String name;
 
@@ -30,13 +48,33 @@ public class Product implements Serializable {
     private Double price;
     private String imgUrl;
 
+    // set when the image is hosted locally: SHA-256 of its bytes, which is also its file name
+    @Column(length = 64)
+    private String imgHash;
+    private String imgContentType;
+
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant date;
 
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant createdAt;
+
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant updatedAt;
+
+    // bumped on every update, including changes to the categories collection; feeds the ETag
+    @Version
+    @Column(columnDefinition = "INTEGER DEFAULT 0 NOT NULL")
+    private Integer version;
+
+    // only the category ids are cached here; the Category rows come from their own region
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(name = "tb_product_category",
             joinColumns = @JoinColumn(name = "product_id"),
-            inverseJoinColumns = @JoinColumn(name = "category_id"))
+            inverseJoinColumns = @JoinColumn(name = "category_id"),
+            // the primary key only serves product -> categories; this one serves category filters
+            indexes = @Index(name = "ix_product_category_category_product", columnList = "category_id, product_id"))
     Set<Category> categories = new HashSet<>();
 
     public Product() {
@@ -91,6 +129,22 @@ public class Product implements Serializable {
         this.imgUrl = imgUrl;
     }
 
+    public String getImgHash() {
+        return imgHash;
+    }
+
+    public void setImgHash(String imgHash) {
+        this.imgHash = imgHash;
+    }
+
+    public String getImgContentType() {
+        return imgContentType;
+    }
+
+    public void setImgContentType(String imgContentType) {
+        this.imgContentType = imgContentType;
+    }
+
     public Instant getDate() {
         return date;
     }
@@ -99,6 +153,29 @@ public class Product implements Serializable {
         this.date = date;
     }
 
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    // microseconds, the column precision, so the managed instance holds what is stored
+    @PrePersist
+    public void prePersist() {
+        createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     public Set<Category> getCategories() {
         return categories;
     }
@@ -0,0 +1,19 @@
+package com.dvsuperior.dscatalog.repositories;
+
+import com.dvsuperior.dscatalog.entities.CatalogChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    @Query("SELECT obj FROM CatalogChange obj WHERE obj.id > :since ORDER BY obj.id")
+    List<CatalogChange> findAfter(Long since, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(obj.id), 0) FROM CatalogChange obj")
+    long findLastId();
+}
@@ -0,0 +1,16 @@
+package com.dvsuperior.dscatalog.repositories;
+
+public interface CategoryProductStats {
+
+    Long getCategoryId();
+
+    Long getProductCount();
+
+    Long getPricedCount();
+
+    Double getMinPrice();
+
+    Double getMaxPrice();
+
+    Double getAvgPrice();
+}
@@ -1,9 +1,65 @@
 package com.dvsuperior.dscatalog.repositories;
 
 import com.dvsuperior.dscatalog.entities.Category;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryRepositoryCustom {
+
+    String QUERY_REGION = "dscatalog.categoryQueries";
+
+    /**
+     * Page and count results go to the query cache; Hibernate invalidates them whenever
+     * tb_category is written.
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = QUERY_REGION)
+    })
+    Page<Category> findAll(Pageable pageable);
+
+    @Query("SELECT obj.id FROM Category obj")
+    List<Long> findAllIds();
+
+    @Query("SELECT obj.id FROM Category obj WHERE obj.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * The subset of ids still linked to at least one product.
+     */
+    @Query("SELECT DISTINCT cat.id FROM Product obj JOIN obj.categories cat WHERE cat.id IN :ids")
+    List<Long> findReferencedIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Category obj WHERE obj.id IN :ids")
+    int bulkDelete(Collection<Long> ids);
+
+    @Query("SELECT obj.version FROM Category obj WHERE obj.id = :id")
+    Optional<Integer> findVersionById(Long id);
+
+    /**
+     * Page without the COUNT(*) query: fetches size + 1 rows to know whether a next page exists.
+     */
+    @Query("SELECT obj FROM Category obj")
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = QUERY_REGION)
+    })
+    Slice<Category> findSlice(Pageable pageable);
 }
@@ -0,0 +1,11 @@
+package com.dvsuperior.dscatalog.repositories;
+
+import com.dvsuperior.dscatalog.entities.Category;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface CategoryRepositoryCustom {
+
+    List<Category> findAfter(String property, Sort.Direction direction, Object value, Long id, int limit);
+}
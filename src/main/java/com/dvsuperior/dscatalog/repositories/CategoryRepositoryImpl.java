@@ -0,0 +1,19 @@
+package com.dvsuperior.dscatalog.repositories;
+
+import com.dvsuperior.dscatalog.entities.Category;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Category> findAfter(String property, Sort.Direction direction, Object value, Long id, int limit) {
+        return KeysetQueries.findAfter(em, Category.class, property, direction, value, id, limit);
+    }
+}
@@ -0,0 +1,89 @@
+package com.dvsuperior.dscatalog.repositories;
+
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds seek queries: {@code WHERE (key, id) > (:value, :id) ORDER BY key, id LIMIT n}, written out
+ * as {@code key > :value OR (key = :value AND id > :id)} so it stays portable across databases.
+ * The cost of a page depends only on {@code limit}, never on how deep the page is.
+ * <p>
+ * Rows whose key is null come last in both directions, ordered by id. Databases disagree on where
+ * nulls sort, and {@code key > null} matches nothing, so they are read by a second query
+ * ({@code key IS NULL AND id > :id}) once the non-null rows run out. Each query stays a range scan
+ * on the (key, id) index.
+ */
+final class KeysetQueries {
+
+    private KeysetQueries() {
+    }
+
+    static <T> List<T> findAfter(EntityManager em, Class<T> type, String property, Sort.Direction direction,
+                                 Object value, Long id, int limit) {
+        if ("id".equals(property)) {
+            return find(em, type, property, direction, limit, (cb, key, rootId) -> idAfter(cb, rootId, direction, id));
+        }
+        List<T> result = new ArrayList<>();
+        // a cursor with a null value is already among the null keys
+        if (id == null || value != null) {
+            result.addAll(find(em, type, property, direction, limit, (cb, key, rootId) -> {
+                Predicate notNull = cb.isNotNull(key);
+                return id == null ? notNull : cb.and(notNull, keyAfter(cb, key, rootId, direction, value, id));
+            }));
+        }
+        if (result.size() < limit) {
+            Long nullsAfter = value == null ? id : null;
+            result.addAll(find(em, type, property, direction, limit - result.size(), (cb, key, rootId) -> {
+                Predicate isNull = cb.isNull(key);
+                return nullsAfter == null ? isNull : cb.and(isNull, idAfter(cb, rootId, direction, nullsAfter));
+            }));
+        }
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate keyAfter(CriteriaBuilder cb, Expression key, Expression<Long> rootId,
+                                      Sort.Direction direction, Object value, Long id) {
+        Comparable comparable = (Comparable) value;
+        Predicate after = direction.isAscending() ? cb.greaterThan(key, comparable) : cb.lessThan(key, comparable);
+        return cb.or(after, cb.and(cb.equal(key, value), idAfter(cb, rootId, direction, id)));
+    }
+
+    private static Predicate idAfter(CriteriaBuilder cb, Expression<Long> rootId, Sort.Direction direction, Long id) {
+        if (id == null) {
+            return cb.conjunction();
+        }
+        return direction.isAscending() ? cb.greaterThan(rootId, id) : cb.lessThan(rootId, id);
+    }
+
+    private static <T> List<T> find(EntityManager em, Class<T> type, String property, Sort.Direction direction,
+                                    int limit, Condition condition) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        Expression<Object> key = root.get(property);
+        Expression<Long> rootId = root.get("id");
+        boolean asc = direction.isAscending();
+
+        query.where(condition.build(cb, key, rootId));
+        if ("id".equals(property)) {
+            query.orderBy(asc ? cb.asc(rootId) : cb.desc(rootId));
+        } else {
+            query.orderBy(asc ? cb.asc(key) : cb.desc(key), asc ? cb.asc(rootId) : cb.desc(rootId));
+        }
+        return em.createQuery(query.select(root)).setMaxResults(limit).getResultList();
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        Predicate build(CriteriaBuilder cb, Expression<Object> key, Expression<Long> rootId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.dvsuperior.dscatalog.repositories;
+
+/**
+ * One (product, category) link of tb_product_category.
+ */
+public interface ProductCategoryLink {
+
+    Long getProductId();
+
+    Long getCategoryId();
+}
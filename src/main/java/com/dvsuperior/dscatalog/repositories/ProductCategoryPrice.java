@@ -0,0 +1,14 @@
+package com.dvsuperior.dscatalog.repositories;
+
+/**
+ * One (product, category) link with the product price; categoryId is null for products
+ * without categories.
+ */
+public interface ProductCategoryPrice {
+
+    Long getProductId();
+
+    Double getPrice();
+
+    Long getCategoryId();
+}
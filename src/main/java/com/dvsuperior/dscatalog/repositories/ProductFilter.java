@@ -0,0 +1,74 @@
+package com.dvsuperior.dscatalog.repositories;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
+
+/**
+ * Optional listing filters, bound from the query string of GET /products. Null fields are
+ * ignored; from and to are ISO-8601 instants and both bounds are inclusive.
+ */
+public class ProductFilter {
+    private Long categoryId;
+    private Double minPrice;
+    private Double maxPrice;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant to;
+
+    public ProductFilter() {
+    }
+
+    public ProductFilter(Long categoryId, Double minPrice, Double maxPrice, Instant from, Instant to) {
+        this.categoryId = categoryId;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.from = from;
+        this.to = to;
+    }
+
+    public boolean isEmpty() {
+        return categoryId == null && minPrice == null && maxPrice == null && from == null && to == null;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+}
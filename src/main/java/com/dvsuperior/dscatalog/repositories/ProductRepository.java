@@ -2,8 +2,73 @@ package com.dvsuperior.dscatalog.repositories;
 
 import com.dvsuperior.dscatalog.entities.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    /**
+     * Second phase of a paged read: initializes the categories of products already in the
+     * persistence context with one query, instead of one lazy load per product.
+     */
+    @Query("SELECT DISTINCT obj FROM Product obj LEFT JOIN FETCH obj.categories WHERE obj IN :products")
+    List<Product> findProductsWithCategories(List<Product> products);
+
+    /**
+     * Cursor over the whole catalog for exports. Must be consumed inside a transaction and closed;
+     * callers should detach rows as they go so the persistence context stays empty.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT obj FROM Product obj ORDER BY obj.id")
+    Stream<Product> streamAll();
+
+    /**
+     * Cursor over every category link in the order of {@link #streamAll()}, so an export can
+     * merge the two without a query per product.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT obj.id AS productId, cat.id AS categoryId FROM Product obj JOIN obj.categories cat "
+            + "ORDER BY obj.id, cat.id")
+    Stream<ProductCategoryLink> streamCategoryLinks();
+
+    @Query("SELECT obj.version AS version, COALESCE(SUM(cat.version), 0) AS categoryVersions "
+            + "FROM Product obj LEFT JOIN obj.categories cat WHERE obj.id = :id GROUP BY obj.id, obj.version")
+    Optional<ProductVersion> findVersionById(Long id);
+
+    @Query("SELECT obj.id FROM Product obj WHERE obj.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query("SELECT obj.id AS productId, obj.price AS price, cat.id AS categoryId "
+            + "FROM Product obj LEFT JOIN obj.categories cat WHERE obj.id IN :ids")
+    List<ProductCategoryPrice> findCategoryPrices(Collection<Long> ids);
+
+    @Query("SELECT cat.id AS categoryId, COUNT(obj) AS productCount, COUNT(obj.price) AS pricedCount, "
+            + "MIN(obj.price) AS minPrice, MAX(obj.price) AS maxPrice, AVG(obj.price) AS avgPrice "
+            + "FROM Product obj JOIN obj.categories cat GROUP BY cat.id")
+    List<CategoryProductStats> aggregateCategoryStats();
+
+    @Query("SELECT cat.id AS categoryId, COUNT(obj) AS productCount, COUNT(obj.price) AS pricedCount, "
+            + "MIN(obj.price) AS minPrice, MAX(obj.price) AS maxPrice, AVG(obj.price) AS avgPrice "
+            + "FROM Product obj JOIN obj.categories cat WHERE cat.id IN :categoryIds GROUP BY cat.id")
+    List<CategoryProductStats> aggregateCategoryStats(Collection<Long> categoryIds);
 }
@@ -0,0 +1,26 @@
+package com.dvsuperior.dscatalog.repositories;
+
+import com.dvsuperior.dscatalog.DTO.ProductSummaryDTO;
+import com.dvsuperior.dscatalog.entities.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    List<Product> findAfter(String property, Sort.Direction direction, Object value, Long id, int limit);
+
+    Page<ProductSummaryDTO> findSummaries(ProductFilter filter, Pageable pageable);
+
+    Slice<ProductSummaryDTO> findSummarySlice(ProductFilter filter, Pageable pageable);
+
+    Page<Product> findAll(ProductFilter filter, Pageable pageable);
+
+    Slice<Product> findSlice(ProductFilter filter, Pageable pageable);
+
+    int bulkDelete(Collection<Long> ids);
+}
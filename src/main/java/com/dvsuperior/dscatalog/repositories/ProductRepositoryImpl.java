@@ -0,0 +1,144 @@
+package com.dvsuperior.dscatalog.repositories;
+
+import com.dvsuperior.dscatalog.DTO.ProductSummaryDTO;
+import com.dvsuperior.dscatalog.entities.Product;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Product> findAfter(String property, Sort.Direction direction, Object value, Long id, int limit) {
+        return KeysetQueries.findAfter(em, Product.class, property, direction, value, id, limit);
+    }
+
+    @Override
+    public Page<ProductSummaryDTO> findSummaries(ProductFilter filter, Pageable pageable) {
+        List<ProductSummaryDTO> content = query(ProductSummaryDTO.class, this::summary, filter, pageable, false);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Slice<ProductSummaryDTO> findSummarySlice(ProductFilter filter, Pageable pageable) {
+        return toSlice(query(ProductSummaryDTO.class, this::summary, filter, pageable, true), pageable);
+    }
+
+    @Override
+    public Page<Product> findAll(ProductFilter filter, Pageable pageable) {
+        List<Product> content = query(Product.class, (cb, root) -> root, filter, pageable, false);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Slice<Product> findSlice(ProductFilter filter, Pageable pageable) {
+        return toSlice(query(Product.class, (cb, root) -> root, filter, pageable, true), pageable);
+    }
+
+    /**
+     * Two set-based statements: the category links, then the products. Both are native with their
+     * query spaces declared, so Hibernate only invalidates the product regions of the second-level
+     * cache (an undeclared native DML clears every region, categories included). A JPQL delete
+     * would also work but adds its own subquery-based link delete on top.
+     */
+    @Override
+    public int bulkDelete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        em.createNativeQuery("DELETE FROM tb_product_category WHERE product_id IN (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("tb_product_category")
+                .setParameterList("ids", ids)
+                .executeUpdate();
+        return em.createNativeQuery("DELETE FROM tb_product WHERE id IN (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Product.class)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+
+    private Selection<ProductSummaryDTO> summary(CriteriaBuilder cb, Root<Product> root) {
+        return cb.construct(ProductSummaryDTO.class,
+                root.get("id"), root.get("name"), root.get("price"), root.get("imgUrl"), root.get("date"));
+    }
+
+    /**
+     * One SELECT with every filter in the WHERE clause; a slice reads one extra row to learn
+     * whether there is a next page.
+     */
+    private <T> List<T> query(Class<T> type,
+                              BiFunction<CriteriaBuilder, Root<Product>, Selection<T>> selection,
+                              ProductFilter filter, Pageable pageable, boolean slice) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<Product> root = query.from(Product.class);
+        query.select(selection.apply(cb, root)).where(predicates(cb, root, filter));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<T> typed = em.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize() + (slice ? 1 : 0));
+        }
+        return typed.getResultList();
+    }
+
+    private long count(ProductFilter filter) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.count(root)).where(predicates(cb, root, filter));
+        return em.createQuery(query).getSingleResult();
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<Product> root, ProductFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getCategoryId() != null) {
+            // (product_id, category_id) is unique, so the join cannot duplicate rows
+            predicates.add(cb.equal(root.join("categories").get("id"), filter.getCategoryId()));
+        }
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("date"), filter.getTo()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static <T> Slice<T> toSlice(List<T> rows, Pageable pageable) {
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        List<T> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
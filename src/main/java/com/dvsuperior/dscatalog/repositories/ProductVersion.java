@@ -0,0 +1,13 @@
+package com.dvsuperior.dscatalog.repositories;
+
+/**
+ * Cheap change stamp of a product detail: its own version plus the sum of the versions of its
+ * categories. Versions only grow and collection changes bump the product version, so any change
+ * visible in ProductDTO changes the stamp.
+ */
+public interface ProductVersion {
+
+    Integer getVersion();
+
+    Long getCategoryVersions();
+}
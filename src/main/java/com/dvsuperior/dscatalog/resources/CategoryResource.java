@@ -1,16 +1,24 @@
 package com.dvsuperior.dscatalog.resources;
 
+import com.dvsuperior.dscatalog.DTO.BulkDeleteResultDTO;
 import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.DTO.CategoryStatsDTO;
+import com.dvsuperior.dscatalog.DTO.CursorPageDTO;
+import com.dvsuperior.dscatalog.DTO.SliceDTO;
 import com.dvsuperior.dscatalog.services.CategoryService;
+import com.dvsuperior.dscatalog.services.CountMode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping(value = "/categories")
@@ -31,10 +39,45 @@ public class CategoryResource {
         return ResponseEntity.ok().body(dtoPage);
     }
 
+    @GetMapping(params = "count")
+    public ResponseEntity<?> findAllCounted(@RequestParam String count, Pageable pageable) {
+
+        // count=false (ou none) nao executa o COUNT(*); count=approx devolve o total em cache
+
+        CountMode mode = CountMode.of(count);
+        if (mode == CountMode.EXACT) {
+            return findAll(pageable);
+        }
+        SliceDTO<CategoryDTO> dtoSlice = service.findAllSliced(pageable, mode);
+        return ResponseEntity.ok().body(dtoSlice);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CategoryStatsDTO>> findStats() {
+        List<CategoryStatsDTO> stats = service.findStats();
+        return ResponseEntity.ok().body(stats);
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<CategoryDTO>> findAllAfter(@RequestParam String after, Pageable pageable) {
+
+        // PARAMETROS: after (vazio na primeira pagina), size, sort
+
+        CursorPageDTO<CategoryDTO> dtoPage = service.findAllAfter(after, pageable);
+        return ResponseEntity.ok().body(dtoPage);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, WebRequest request) {
+
+        // ETag barato: se o cliente ja tem a versao atual, responde 304 sem carregar a entidade
+
+        String eTag = service.findVersionTag(id);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         CategoryDTO dto = service.findById(id);
-        return ResponseEntity.ok().body(dto);
+        return ResponseEntity.ok().eTag(eTag).body(dto);
     }
 
     @PostMapping
@@ -51,10 +94,25 @@ public class CategoryResource {
         return ResponseEntity.ok().body(dto);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<CategoryDTO> patchCategory(@PathVariable Long id, @RequestBody CategoryDTO dto) {
+        dto = service.patchCategory(id, dto);
+        return ResponseEntity.ok().body(dto);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
         service.deleteCategory(id);
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<BulkDeleteResultDTO> deleteCategories(@RequestParam List<Long> ids) {
+
+        // categorias com produtos nao sao removidas, voltam em "blocked"
+
+        BulkDeleteResultDTO result = service.deleteCategories(ids);
+        return ResponseEntity.ok().body(result);
+    }
+
 }
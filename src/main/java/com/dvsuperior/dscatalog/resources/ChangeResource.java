@@ -0,0 +1,32 @@
+package com.dvsuperior.dscatalog.resources;
+
+import com.dvsuperior.dscatalog.DTO.ChangeFeedDTO;
+import com.dvsuperior.dscatalog.services.ChangeFeedService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/changes")
+public class ChangeResource {
+
+    private final ChangeFeedService service;
+
+
+    public ChangeResource(ChangeFeedService service) {
+        this.service = service;
+    }
+
+
+    @GetMapping
+    public ResponseEntity<ChangeFeedDTO> findChanges(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(defaultValue = "100") int size) {
+
+        // since: valor de "next" da resposta anterior (0 na primeira sincronizacao)
+
+        ChangeFeedDTO feed = service.findChanges(since, size);
+        return ResponseEntity.ok().body(feed);
+    }
+}
@@ -0,0 +1,80 @@
+package com.dvsuperior.dscatalog.resources;
+
+import com.dvsuperior.dscatalog.DTO.BatchItemResultDTO;
+import com.dvsuperior.dscatalog.DTO.ImportResultDTO;
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.services.FileFormat;
+import com.dvsuperior.dscatalog.services.ProductBulkService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/products")
+public class ProductBulkResource {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+    private final ProductBulkService service;
+
+
+    public ProductBulkResource(ProductBulkService service) {
+        this.service = service;
+    }
+
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResultDTO>> insertBatch(@RequestBody List<ProductDTO> dtos) {
+        List<BatchItemResultDTO> results = service.insertAll(dtos);
+        return ResponseEntity.ok().body(results);
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchItemResultDTO>> updateBatch(@RequestBody List<ProductDTO> dtos) {
+
+        // cada item precisa do id; ids ou categorias inexistentes falham so no proprio item
+
+        List<BatchItemResultDTO> results = service.updateAll(dtos);
+        return ResponseEntity.ok().body(results);
+    }
+
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+
+        // escreve direto na resposta, sem montar a lista em memoria
+
+        FileFormat fileFormat = FileFormat.of(format);
+        response.setContentType(fileFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        service.exportTo(response.getOutputStream(), fileFormat);
+    }
+
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportResultDTO> importProducts(HttpServletRequest request) throws IOException {
+
+        // le o corpo como stream, registro por registro, sem carregar o arquivo inteiro
+
+        // charset do Content-Type, UTF-8 quando ausente
+
+        MediaType mediaType = MediaType.parseMediaType(request.getContentType());
+        FileFormat fileFormat = mediaType.isCompatibleWith(TEXT_CSV) ? FileFormat.CSV : FileFormat.NDJSON;
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+        ImportResultDTO result = service.importFrom(new InputStreamReader(request.getInputStream(), charset), fileFormat);
+        return ResponseEntity.ok().body(result);
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.dvsuperior.dscatalog.resources;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.services.ProductImageService;
+import com.dvsuperior.dscatalog.services.ProductImageService.StoredImage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/products/{id}/image")
+public class ProductImageResource {
+
+    // Tomcat sends the file itself, with sendfile(2), when these request attributes are set
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private final ProductImageService service;
+
+
+    public ProductImageResource(ProductImageService service) {
+        this.service = service;
+    }
+
+
+    @PutMapping
+    public ResponseEntity<ProductDTO> uploadImage(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                  HttpServletRequest request) throws IOException {
+
+        // corpo = bytes da imagem (image/png, image/jpeg, image/gif ou image/webp), gravado em disco sem passar pela memoria
+        // imgUrl do produto passa a apontar para GET /products/{id}/image
+
+        ProductDTO dto = service.storeImage(id, contentType, request.getInputStream());
+        return ResponseEntity.ok().body(dto);
+    }
+
+    @GetMapping
+    public void findImage(@PathVariable Long id, @RequestParam(required = false) String v,
+                          ServletWebRequest webRequest, HttpServletResponse response) throws IOException {
+
+        // com ?v=<hash> (a imgUrl gravada) a resposta pode ficar em cache para sempre; sem ele, revalida pelo ETag
+        // Range: um intervalo por requisicao; varios intervalos recebem o arquivo inteiro
+
+        StoredImage image = service.findImage(id);
+        String eTag = "\"" + image.getHash() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, image.getHash().equals(v) ? IMMUTABLE : "no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (webRequest.checkNotModified(eTag)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setContentType(image.getContentType());
+
+        long length = image.getLength();
+        long start = 0;
+        long end = length - 1;
+        HttpServletRequest request = webRequest.getRequest();
+        List<HttpRange> ranges = parseRanges(request.getHeader(HttpHeaders.RANGE), request.getHeader(HttpHeaders.IF_RANGE), eTag);
+        if (ranges.size() == 1) {
+            start = ranges.get(0).getRangeStart(length);
+            end = ranges.get(0).getRangeEnd(length);
+            if (start >= length || start > end) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, image.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        // no sendfile (other containers, tests): transferTo still skips the copy into a heap buffer where it can
+        try (FileChannel file = FileChannel.open(image.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (count > 0) {
+                long sent = file.transferTo(position, count, out);
+                position += sent;
+                count -= sent;
+            }
+        }
+    }
+
+    // a Range that is malformed, or that targets an older version (If-Range), is ignored
+    private static List<HttpRange> parseRanges(String range, String ifRange, String eTag) {
+        if (range == null || (ifRange != null && !ifRange.equals(eTag))) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
@@ -1,18 +1,38 @@
 package com.dvsuperior.dscatalog.resources;
 
+import com.dvsuperior.dscatalog.DTO.BulkDeleteResultDTO;
 import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.DTO.CursorPageDTO;
 import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.DTO.ProductLookupDTO;
+import com.dvsuperior.dscatalog.DTO.ProductPatchDTO;
+import com.dvsuperior.dscatalog.DTO.ProductSummaryDTO;
+import com.dvsuperior.dscatalog.DTO.SliceDTO;
+import com.dvsuperior.dscatalog.repositories.ProductFilter;
 import com.dvsuperior.dscatalog.services.CategoryService;
+import com.dvsuperior.dscatalog.services.ChangeFeedService;
+import com.dvsuperior.dscatalog.services.CountMode;
+import com.dvsuperior.dscatalog.services.ProductPageCache;
+import com.dvsuperior.dscatalog.services.ProductPageCache.CachedPage;
 import com.dvsuperior.dscatalog.services.ProductService;
+import com.dvsuperior.dscatalog.services.ProductView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping(value = "/products")
@@ -20,25 +40,140 @@ public class ProductResource {
 
     private final ProductService service;
 
+    private final ProductPageCache pageCache;
 
-    public ProductResource(ProductService service) {
+    private final ChangeFeedService changeFeedService;
+
+
+    public ProductResource(ProductService service, ProductPageCache pageCache, ChangeFeedService changeFeedService) {
         this.service = service;
+        this.pageCache = pageCache;
+        this.changeFeedService = changeFeedService;
     }
 
 
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable ) {
+    public ResponseEntity<?> findAll(Pageable pageable, ProductFilter filter,
+                                     @RequestParam(defaultValue = "summary") String view,
+                                     ServletWebRequest request) {
+
+        // PARAMETROS: page, size, sort, view (summary por padrao, full inclui descricao e categorias)
+        // FILTROS opcionais: categoryId, minPrice, maxPrice, from, to (datas ISO-8601)
+
+        ProductView productView = ProductView.of(view);
+        if (filter.isEmpty()) {
+            return cachedPage(filter, pageable, productView, request);
+        }
+        return ResponseEntity.ok().body(loadPage(filter, pageable, productView));
+    }
+
+    @GetMapping(params = "count")
+    public ResponseEntity<?> findAllCounted(@RequestParam String count, Pageable pageable, ProductFilter filter,
+                                            @RequestParam(defaultValue = "summary") String view,
+                                            ServletWebRequest request) {
+
+        // count=false (ou none) nao executa o COUNT(*); count=approx devolve o total em cache
+
+        CountMode mode = CountMode.of(count);
+        if (mode == CountMode.EXACT) {
+            return findAll(pageable, filter, view, request);
+        }
+        if (ProductView.of(view) == ProductView.FULL) {
+            SliceDTO<ProductDTO> dtoSlice = service.findAllSliced(filter, pageable, mode);
+            return ResponseEntity.ok().body(dtoSlice);
+        }
+        SliceDTO<ProductSummaryDTO> summarySlice = service.findAllSummariesSliced(filter, pageable, mode);
+        return ResponseEntity.ok().body(summarySlice);
+    }
+
+    private Page<?> loadPage(ProductFilter filter, Pageable pageable, ProductView view) {
+        if (view == ProductView.FULL) {
+            return service.findAllPaged(filter, pageable);
+        }
+        return service.findAllSummaries(filter, pageable);
+    }
+
+    private ResponseEntity<byte[]> cachedPage(ProductFilter filter, Pageable pageable, ProductView view,
+                                              ServletWebRequest request) {
+
+        // paginas sem filtro saem prontas do cache: o ETag ja vem calculado, entao o filtro de ETag nao copia o corpo
+
+        CachedPage page = pageCache.get(ProductPageCache.key(view, pageable),
+                () -> loadPage(filter, pageable, view));
+        ShallowEtagHeaderFilter.disableContentCaching(request.getRequest());
+        boolean gzip = page.getGzip() != null && acceptsGzip(request);
+        String eTag = gzip ? page.getGzipETag() : page.getETag();
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.getGzip());
+        }
+        return response.body(page.getJson());
+    }
+
+    private static boolean acceptsGzip(ServletWebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductLookupDTO> findAllByIds(@RequestParam List<Long> ids) {
+
+        // varios produtos de uma vez, na ordem pedida; ids inexistentes voltam em "missing"
+
+        ProductLookupDTO result = service.findAllByIds(ids);
+        return ResponseEntity.ok().body(result);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<ProductLookupDTO> lookup(@RequestBody List<Long> ids) {
 
-        // PARAMETROS: page, size, sort
+        // mesmo que GET ?ids=, para listas que nao cabem na URL
 
-        Page<ProductDTO> dtoPage = service.findAllPaged(pageable);
+        ProductLookupDTO result = service.findAllByIds(ids);
+        return ResponseEntity.ok().body(result);
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> findAllAfter(@RequestParam String after, Pageable pageable) {
+
+        // PARAMETROS: after (vazio na primeira pagina), size, sort
+
+        CursorPageDTO<ProductDTO> dtoPage = service.findAllAfter(after, pageable);
+        return ResponseEntity.ok().body(dtoPage);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+
+        // eventos "product" e "category" a cada alteracao confirmada; o id do evento e o cursor de /changes
+        // reconectando com Last-Event-ID as alteracoes perdidas sao enviadas antes das novas
+
+        return changeFeedService.subscribe(lastEventId);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProductDTO>> search(@RequestParam String q, Pageable pageable) {
+        Page<ProductDTO> dtoPage = service.search(q, pageable);
         return ResponseEntity.ok().body(dtoPage);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
+
+        // ETag barato: se o cliente ja tem a versao atual, responde 304 sem carregar a entidade
+
+        String eTag = service.findVersionTag(id);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         ProductDTO dto = service.findById(id);
-        return ResponseEntity.ok().body(dto);
+        return ResponseEntity.ok().eTag(eTag).body(dto);
     }
 
     @PostMapping
@@ -55,10 +190,28 @@ public class ProductResource {
         return ResponseEntity.ok().body(dto);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<ProductDTO> patchProduct(@PathVariable Long id, @RequestBody ProductPatchDTO dto) {
+
+        // so os campos enviados sao alterados; categories, se enviado, substitui as categorias
+
+        ProductDTO result = service.patchProduct(id, dto);
+        return ResponseEntity.ok().body(result);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         service.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<BulkDeleteResultDTO> deleteProducts(@RequestParam List<Long> ids) {
+
+        // ids separados por virgula; a resposta lista os removidos e os que nao existiam
+
+        BulkDeleteResultDTO result = service.deleteProducts(ids);
+        return ResponseEntity.ok().body(result);
+    }
+
 }
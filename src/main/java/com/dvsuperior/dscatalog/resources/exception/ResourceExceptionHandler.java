@@ -1,7 +1,10 @@
 package com.dvsuperior.dscatalog.resources.exception;
 
 import com.dvsuperior.dscatalog.services.exceptions.DatabaseException;
+import com.dvsuperior.dscatalog.services.exceptions.InvalidRequestException;
 import com.dvsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -22,6 +25,7 @@ public class ResourceExceptionHandler {
         err.setError("Resource not found");
         err.setMessage(e.getMessage());
         err.setPath(request.getRequestURI());
+        countError(err, e);
         return ResponseEntity.status(status).body(err);
     }
 
@@ -34,6 +38,47 @@ public class ResourceExceptionHandler {
         err.setError("Database Exception");
         err.setMessage(e.getMessage());
         err.setPath(request.getRequestURI());
+        countError(err, e);
         return ResponseEntity.status(status).body(err);
     }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<StandardError> invalidRequest(InvalidRequestException e, HttpServletRequest request){
+        StandardError err = new StandardError();
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        err.setTimeStamp(Instant.now());
+        err.setStatus(status.value());
+        err.setError("Invalid request");
+        err.setMessage(e.getMessage());
+        err.setPath(request.getRequestURI());
+        countError(err, e);
+        return ResponseEntity.status(status).body(err);
+    }
+
+    /**
+     * Two writes raced on the same row: the @Version check rejected the one that committed second.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<StandardError> conflict(OptimisticLockingFailureException e, HttpServletRequest request){
+        StandardError err = new StandardError();
+        HttpStatus status = HttpStatus.CONFLICT;
+        err.setTimeStamp(Instant.now());
+        err.setStatus(status.value());
+        err.setError("Conflict");
+        err.setMessage("Resource was modified concurrently, reload it and retry");
+        err.setPath(request.getRequestURI());
+        countError(err, e);
+        return ResponseEntity.status(status).body(err);
+    }
+
+    /**
+     * dscatalog.http.errors, split by handler outcome. Uses the global registry so the advice also
+     * works in web slice tests where no MeterRegistry bean exists.
+     */
+    private void countError(StandardError err, Exception e) {
+        Metrics.counter("dscatalog.http.errors",
+                "error", err.getError(),
+                "status", String.valueOf(err.getStatus()),
+                "exception", e.getClass().getSimpleName()).increment();
+    }
 }
@@ -0,0 +1,55 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Row counts served to ?count=approx listings. They are refreshed every
+ * dscatalog.count.refresh-ms, so a listing never pays for a COUNT(*) on the request path
+ * (except the very first one after startup).
+ */
+@Component
+public class CatalogCounts {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final AtomicLong products = new AtomicLong(-1);
+    private final AtomicLong categories = new AtomicLong(-1);
+
+    public CatalogCounts(ProductRepository productRepository, CategoryRepository categoryRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    public long products() {
+        long value = products.get();
+        return value >= 0 ? value : refreshProducts();
+    }
+
+    public long categories() {
+        long value = categories.get();
+        return value >= 0 ? value : refreshCategories();
+    }
+
+    @Scheduled(fixedDelayString = "${dscatalog.count.refresh-ms}", initialDelayString = "${dscatalog.count.refresh-ms}")
+    public void refresh() {
+        refreshProducts();
+        refreshCategories();
+    }
+
+    private long refreshProducts() {
+        long value = productRepository.count();
+        products.set(value);
+        return value;
+    }
+
+    private long refreshCategories() {
+        long value = categoryRepository.count();
+        categories.set(value);
+        return value;
+    }
+}
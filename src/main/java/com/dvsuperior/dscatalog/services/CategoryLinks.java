@@ -0,0 +1,37 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.entities.Category;
+import com.dvsuperior.dscatalog.entities.Product;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Brings a product's categories to a wanted set of ids by removing and adding only the
+ * differences, compared by id. Hibernate then deletes and inserts just those
+ * tb_product_category rows instead of clearing the collection and reinserting every link.
+ */
+final class CategoryLinks {
+
+    private CategoryLinks() {
+    }
+
+    /**
+     * @param resolver called only for ids the product does not have yet
+     * @return whether the categories changed
+     */
+    static boolean apply(Product entity, Collection<Long> wantedIds, Function<Long, Category> resolver) {
+        Set<Long> wanted = Set.copyOf(wantedIds);
+        boolean changed = entity.getCategories().removeIf(category -> !wanted.contains(category.getId()));
+        Set<Long> present = entity.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+        for (Long id : wanted) {
+            if (!present.contains(id)) {
+                entity.getCategories().add(resolver.apply(id));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
@@ -1,65 +1,187 @@
 package com.dvsuperior.dscatalog.services;
 
+import com.dvsuperior.dscatalog.DTO.BulkDeleteResultDTO;
 import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.DTO.CategoryStatsDTO;
+import com.dvsuperior.dscatalog.DTO.CursorPageDTO;
+import com.dvsuperior.dscatalog.DTO.SliceDTO;
 import com.dvsuperior.dscatalog.entities.Category;
 import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.dvsuperior.dscatalog.services.events.CategoryChangedEvent;
 import com.dvsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.dvsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
+    // read-through caches, sized and expired by spring.cache.caffeine.spec
+    public static final String CACHE = "categories";
+    public static final String PAGE_CACHE = "categoryPages";
+
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of("id", Long.class, "name", String.class);
 
     private final CategoryRepository repository;
+    private final CatalogCounts counts;
+    private final CategoryStatistics statistics;
+    private final ApplicationEventPublisher publisher;
 
-    public CategoryService(CategoryRepository repository) {
+    public CategoryService(CategoryRepository repository, CatalogCounts counts, CategoryStatistics statistics,
+                           ApplicationEventPublisher publisher) {
         this.repository = repository;
+        this.counts = counts;
+        this.statistics = statistics;
+        this.publisher = publisher;
     }
 
+    @Cacheable(PAGE_CACHE)
     @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
     public Page<CategoryDTO> findAllPaged(Pageable pageable) {
         Page<Category> list = repository.findAll(pageable);
         return list.map(x -> new CategoryDTO(x));
     }
 
+    /**
+     * Count-free listing: NONE returns no total, APPROXIMATE the cached one from CatalogCounts.
+     */
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public SliceDTO<CategoryDTO> findAllSliced(Pageable pageable, CountMode mode) {
+        Slice<Category> list = repository.findSlice(pageable);
+        Long total = mode == CountMode.APPROXIMATE ? counts.categories() : null;
+        return new SliceDTO<>(list.map(x -> new CategoryDTO(x)), total);
+    }
+
+    /**
+     * Served from memory, see CategoryStatistics.
+     */
+    @Timed("dscatalog.service")
+    public List<CategoryStatsDTO> findStats() {
+        return statistics.findAll();
+    }
+
     @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public CursorPageDTO<CategoryDTO> findAllAfter(String after, Pageable pageable) {
+        KeysetCursor cursor = after == null || after.isEmpty()
+                ? KeysetCursor.first(pageable.getSort(), SORT_KEYS)
+                : KeysetCursor.decode(after, SORT_KEYS);
+        int size = pageable.getPageSize();
+        List<Category> list = repository.findAfter(cursor.getProperty(), cursor.getDirection(),
+                cursor.getValue(), cursor.getId(), size + 1);
+
+        String next = null;
+        if (list.size() > size) {
+            list = list.subList(0, size);
+            next = cursor.after(list.get(size - 1)).encode();
+        }
+        return new CursorPageDTO<>(list.stream().map(x -> new CategoryDTO(x)).collect(Collectors.toList()), size, next);
+    }
+
+    @Cacheable(value = CACHE, key = "#id")
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
     public CategoryDTO findById(Long id) {
         Optional<Category> obj = repository.findById(id);
         Category entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
         return new CategoryDTO(entity);
     }
 
+    /**
+     * Strong ETag of GET /categories/{id}, computed without loading the entity.
+     */
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public String findVersionTag(Long id) {
+        Integer version = repository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    @CacheEvict(value = PAGE_CACHE, allEntries = true)
     @Transactional
+    @Timed("dscatalog.service")
     public CategoryDTO insertCategory(CategoryDTO dto) {
         Category entity = new Category();
         entity.setName(dto.getName());
         entity = repository.save(entity);
-        return new CategoryDTO(entity);
+        CategoryDTO result = new CategoryDTO(entity);
+        publisher.publishEvent(CategoryChangedEvent.inserted(result));
+        return result;
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = CACHE, key = "#id"),
+            @CacheEvict(value = PAGE_CACHE, allEntries = true)
+    })
     @Transactional
+    @Timed("dscatalog.service")
     public CategoryDTO updateCategory(Long id, CategoryDTO dto) {
         try {
             Category entity = repository.getReferenceById(id);
             entity.setName(dto.getName());
             entity = repository.save(entity);
-            return new CategoryDTO(entity);
+            CategoryDTO result = new CategoryDTO(entity);
+            publisher.publishEvent(CategoryChangedEvent.updated(result));
+            return result;
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Id not found " + id);
         }
     }
 
+    /**
+     * Partial update: a null name keeps the current one, and an unchanged name writes nothing.
+     */
+    @Caching(evict = {
+            @CacheEvict(value = CACHE, key = "#id"),
+            @CacheEvict(value = PAGE_CACHE, allEntries = true)
+    })
+    @Transactional
+    @Timed("dscatalog.service")
+    public CategoryDTO patchCategory(Long id, CategoryDTO dto) {
+        Category entity = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+        if (dto.getName() == null || dto.getName().equals(entity.getName())) {
+            return new CategoryDTO(entity);
+        }
+        entity.setName(dto.getName());
+        CategoryDTO result = new CategoryDTO(entity);
+        publisher.publishEvent(CategoryChangedEvent.updated(result));
+        return result;
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = CACHE, key = "#id"),
+            @CacheEvict(value = PAGE_CACHE, allEntries = true)
+    })
+    @Transactional
+    @Timed("dscatalog.service")
     public void deleteCategory(Long id) {
         try {
             repository.deleteById(id);
+            // surfaces integrity violations here rather than at commit, where they would escape the catch below
+            repository.flush();
+            publisher.publishEvent(CategoryChangedEvent.deleted(id));
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException(("Id not found " + id));
         } catch (DataIntegrityViolationException e) {
@@ -67,4 +189,32 @@ public class CategoryService {
         }
     }
 
+    /**
+     * Deletes the given categories that exist and have no products in a single statement; the
+     * others are reported as missing or blocked instead of failing the whole request.
+     */
+    @Caching(evict = {
+            @CacheEvict(value = CACHE, allEntries = true),
+            @CacheEvict(value = PAGE_CACHE, allEntries = true)
+    })
+    @Transactional
+    @Timed("dscatalog.service")
+    public BulkDeleteResultDTO deleteCategories(Collection<Long> ids) {
+        Set<Long> requested = ProductService.requireIds(ids, BulkDeleteResultDTO.MAX_IDS);
+        List<Long> existing = repository.findExistingIds(requested);
+        List<Long> blocked = existing.isEmpty() ? new ArrayList<>() : repository.findReferencedIds(existing);
+        List<Long> deletable = new ArrayList<>(existing);
+        deletable.removeAll(blocked);
+        try {
+            if (!deletable.isEmpty()) {
+                repository.bulkDelete(deletable);
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new DatabaseException("Integrity violation");
+        }
+        deletable.forEach(id -> publisher.publishEvent(CategoryChangedEvent.deleted(id)));
+        requested.removeAll(existing);
+        return new BulkDeleteResultDTO(deletable, new ArrayList<>(requested), blocked);
+    }
+
 }
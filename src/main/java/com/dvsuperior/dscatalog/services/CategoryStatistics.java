@@ -0,0 +1,244 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.CategoryStatsDTO;
+import com.dvsuperior.dscatalog.repositories.CategoryProductStats;
+import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import com.dvsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.dvsuperior.dscatalog.services.events.ChangeType;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent.Snapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Product count and min / max / avg price per category, kept in memory and updated from committed
+ * product and category events, so reading them is O(number of categories) and so is the memory
+ * held. Product events carry the price and categories from before the change, which is what gets
+ * subtracted. Removing a category's current min or max price leaves the new extreme unknown, so
+ * that category alone is re-aggregated from the database. A scheduled GROUP BY rebuilds
+ * everything if the counters ever drift (missed events, concurrent updates of one product).
+ */
+@Component
+public class CategoryStatistics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CategoryStatistics.class);
+
+    private static final double TOLERANCE = 1e-6;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Stats> categories = new TreeMap<>();
+
+    public CategoryStatistics(ProductRepository productRepository, CategoryRepository categoryRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Aggregates outside the lock and swaps the result in. An event applied while the queries run
+     * is lost with the old state if the queries did not see it yet; the next reconcile fixes that.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<Long, Stats> fresh = new TreeMap<>();
+        categoryRepository.findAllIds().forEach(id -> fresh.put(id, new Stats()));
+        productRepository.aggregateCategoryStats().forEach(row -> fresh.put(row.getCategoryId(), Stats.of(row)));
+        lock.writeLock().lock();
+        try {
+            categories = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.info("Category statistics rebuilt for {} categories in {} ms", fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${dscatalog.stats.reconcile-ms}", initialDelayString = "${dscatalog.stats.reconcile-ms}")
+    public void reconcile() {
+        if (!matches(categoryRepository.findAllIds(), productRepository.aggregateCategoryStats())) {
+            LOG.warn("Category statistics drifted from the database, rebuilding");
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Snapshot previous = event.getPrevious();
+        Set<Long> previousIds = previous == null ? Collections.emptySet() : previous.getCategoryIds();
+        Set<Long> currentIds = event.getCategoryIds();
+        Double price = event.getType() == ChangeType.DELETE ? null : event.getProduct().getPrice();
+        // an unchanged price only moves between the categories that were added or removed
+        boolean samePrice = previous != null && event.getType() != ChangeType.DELETE
+                && Objects.equals(previous.getPrice(), price);
+        Set<Long> stale = new HashSet<>();
+        lock.writeLock().lock();
+        try {
+            for (Long id : previousIds) {
+                Stats stats = categories.get(id);
+                if (stats != null && !(samePrice && currentIds.contains(id)) && !stats.remove(previous.getPrice())) {
+                    stale.add(id);
+                }
+            }
+            if (event.getType() != ChangeType.DELETE) {
+                for (Long id : currentIds) {
+                    if (!(samePrice && previousIds.contains(id))) {
+                        categories.computeIfAbsent(id, k -> new Stats()).add(price);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!stale.isEmpty()) {
+            refresh(stale);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == ChangeType.INSERT) {
+                categories.putIfAbsent(event.getId(), new Stats());
+            } else if (event.getType() == ChangeType.DELETE) {
+                categories.remove(event.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // re-aggregates the categories whose min or max was removed
+    private void refresh(Set<Long> ids) {
+        Map<Long, Stats> fresh = new HashMap<>();
+        ids.forEach(id -> fresh.put(id, new Stats()));
+        productRepository.aggregateCategoryStats(ids).forEach(row -> fresh.put(row.getCategoryId(), Stats.of(row)));
+        lock.writeLock().lock();
+        try {
+            fresh.forEach((id, stats) -> categories.computeIfPresent(id, (k, v) -> stats));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<CategoryStatsDTO> findAll() {
+        lock.readLock().lock();
+        try {
+            List<CategoryStatsDTO> result = new ArrayList<>(categories.size());
+            categories.forEach((id, stats) -> result.add(stats.toDto(id)));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean matches(List<Long> categoryIds, List<CategoryProductStats> actual) {
+        lock.readLock().lock();
+        try {
+            if (!categories.keySet().equals(new HashSet<>(categoryIds))) {
+                return false;
+            }
+            long nonEmpty = categories.values().stream().filter(x -> x.count > 0).count();
+            if (nonEmpty != actual.size()) {
+                return false;
+            }
+            for (CategoryProductStats row : actual) {
+                Stats stats = categories.get(row.getCategoryId());
+                if (stats == null || !stats.matches(row)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class Stats {
+        private long count;
+        private long priced;
+        private double sum;
+        private Double min;
+        private Double max;
+
+        private static Stats of(CategoryProductStats row) {
+            Stats stats = new Stats();
+            stats.count = row.getProductCount();
+            stats.priced = row.getPricedCount();
+            stats.sum = row.getAvgPrice() == null ? 0 : row.getAvgPrice() * stats.priced;
+            stats.min = row.getMinPrice();
+            stats.max = row.getMaxPrice();
+            return stats;
+        }
+
+        private void add(Double price) {
+            count++;
+            if (price != null) {
+                priced++;
+                sum += price;
+                min = min == null ? price : Math.min(min, price);
+                max = max == null ? price : Math.max(max, price);
+            }
+        }
+
+        /**
+         * False when the removed price was the min or the max, which then have to be recomputed.
+         */
+        private boolean remove(Double price) {
+            count--;
+            if (price == null) {
+                return true;
+            }
+            priced--;
+            sum -= price;
+            if (priced == 0) {
+                min = null;
+                max = null;
+                sum = 0;
+                return true;
+            }
+            return !price.equals(min) && !price.equals(max);
+        }
+
+        private Double avg() {
+            return priced == 0 ? null : sum / priced;
+        }
+
+        private boolean matches(CategoryProductStats row) {
+            return count == row.getProductCount()
+                    && Objects.equals(min, row.getMinPrice())
+                    && Objects.equals(max, row.getMaxPrice())
+                    && close(avg(), row.getAvgPrice());
+        }
+
+        private static boolean close(Double a, Double b) {
+            if (a == null || b == null) {
+                return a == b;
+            }
+            return Math.abs(a - b) <= TOLERANCE * Math.max(1.0, Math.abs(b));
+        }
+
+        private CategoryStatsDTO toDto(long id) {
+            return new CategoryStatsDTO(id, count, min, max, avg());
+        }
+    }
+}
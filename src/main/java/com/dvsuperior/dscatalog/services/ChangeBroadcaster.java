@@ -0,0 +1,290 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.ChangeDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed catalog changes out to SSE subscribers. Publishing never blocks: each change is
+ * serialized once and offered to every subscriber's bounded queue, and a small shared pool does
+ * the socket writes. A subscriber whose queue fills up is sent an overflow event carrying the
+ * last cursor it received and is disconnected; it can reconnect with that Last-Event-ID and
+ * catch up from tb_catalog_change.
+ * <p>
+ * Socket writes block, so a client that stops reading would hold a sender thread for every event
+ * it still has queued. A write that takes longer than dscatalog.stream.write-timeout-ms evicts
+ * its subscriber: nothing more is written to it, and the thread is back in the pool as soon as
+ * the write in progress returns or fails.
+ */
+@Component
+public class ChangeBroadcaster {
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final long writeTimeoutNanos;
+    private final ExecutorService sender;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    public ChangeBroadcaster(ObjectMapper objectMapper,
+                             @Value("${dscatalog.stream.timeout-ms}") long timeoutMs,
+                             @Value("${dscatalog.stream.buffer-size}") int bufferSize,
+                             @Value("${dscatalog.stream.send-threads}") int sendThreads,
+                             @Value("${dscatalog.stream.write-timeout-ms}") long writeTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("catalog-stream-");
+        threadFactory.setDaemon(true);
+        this.sender = Executors.newFixedThreadPool(sendThreads, threadFactory);
+        Metrics.gauge("dscatalog.stream.subscribers", subscriptions, Set::size);
+    }
+
+    /**
+     * Registers a subscriber that buffers live changes until {@link Subscription#start} is called,
+     * so nothing committed while its backlog is being read is lost.
+     */
+    public Subscription subscribe() {
+        Subscription subscription = new Subscription(newEmitter());
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Called after commit, in commit order.
+     */
+    public void publish(List<ChangeDTO> changes) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        for (ChangeDTO change : changes) {
+            Event event = new Event(change.getCursor(), change.getEntityType().name().toLowerCase(), serialize(change));
+            subscriptions.forEach(x -> x.offer(event));
+        }
+    }
+
+    // keeps idle connections from being closed by proxies
+    @Scheduled(fixedDelayString = "${dscatalog.stream.heartbeat-ms}", initialDelayString = "${dscatalog.stream.heartbeat-ms}")
+    public void heartbeat() {
+        subscriptions.forEach(x -> x.offer(Event.HEARTBEAT));
+    }
+
+    @Scheduled(fixedDelayString = "${dscatalog.stream.write-timeout-ms}")
+    public void evictStuck() {
+        long now = System.nanoTime();
+        subscriptions.stream().filter(x -> x.stuck(now)).forEach(Subscription::evict);
+    }
+
+    public int size() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(x -> x.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private String serialize(ChangeDTO change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Event {
+        private static final Event HEARTBEAT = new Event(Long.MAX_VALUE, null, null);
+
+        private final long cursor;
+        private final String name;
+        private final String data;
+
+        private Event(long cursor, String name, String data) {
+            this.cursor = cursor;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    public final class Subscription {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean started;
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+        private volatile boolean evicted;
+        // System.nanoTime() when the write in progress started, 0 when idle
+        private volatile long writeStarted;
+        // only touched by the thread currently sending
+        private long sent;
+
+        private Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(e -> close());
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        /**
+         * Sends the backlog read for this subscriber, then the buffered live changes that are
+         * newer than {@code after}.
+         */
+        public void start(List<ChangeDTO> backlog, long after) {
+            sent = after;
+            for (ChangeDTO change : backlog) {
+                if (!send(new Event(change.getCursor(), change.getEntityType().name().toLowerCase(), serialize(change)))) {
+                    return;
+                }
+            }
+            started = true;
+            schedule();
+        }
+
+        /**
+         * Tells the client its backlog is too large for the stream and closes it.
+         */
+        public void overflow(long after) {
+            sent = after;
+            sendOverflow();
+        }
+
+        private void offer(Event event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                if (event == Event.HEARTBEAT) {
+                    return;
+                }
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (started && !closed && scheduled.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            Event event;
+            while (!overflowed && !closed && (event = queue.poll()) != null) {
+                // also skips live changes that were already part of the backlog
+                if (event.cursor > sent) {
+                    send(event);
+                }
+            }
+            if (overflowed) {
+                sendOverflow();
+                return;
+            }
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private boolean send(Event event) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (event == Event.HEARTBEAT) {
+                    write(SseEmitter.event().comment(""));
+                } else {
+                    write(SseEmitter.event().id(String.valueOf(event.cursor)).name(event.name)
+                            .data(event.data, MediaType.APPLICATION_JSON));
+                    sent = event.cursor;
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return false;
+            }
+            if (evicted) {
+                complete();
+                return false;
+            }
+            return true;
+        }
+
+        private void sendOverflow() {
+            Metrics.counter("dscatalog.stream.dropped").increment();
+            queue.clear();
+            try {
+                write(SseEmitter.event().name("overflow").data(sent));
+            } catch (IOException | IllegalStateException e) {
+                // already gone
+            }
+            complete();
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) throws IOException {
+            writeStarted = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                writeStarted = 0;
+            }
+        }
+
+        private boolean stuck(long now) {
+            long started = writeStarted;
+            return started != 0 && now - started > writeTimeoutNanos;
+        }
+
+        // runs on the scheduler thread while the sender is still blocked in the write; the emitter is
+        // locked by that write, so the sender completes it once the write is over
+        private void evict() {
+            Metrics.counter("dscatalog.stream.evicted").increment();
+            evicted = true;
+            close();
+            queue.clear();
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // already gone
+            }
+            close();
+        }
+
+        private void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+    }
+}
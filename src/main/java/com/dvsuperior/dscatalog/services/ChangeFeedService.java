@@ -0,0 +1,250 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.DTO.ChangeDTO;
+import com.dvsuperior.dscatalog.DTO.ChangeFeedDTO;
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.config.ReadYourWrites;
+import com.dvsuperior.dscatalog.entities.CatalogChange;
+import com.dvsuperior.dscatalog.entities.CatalogChange.EntityType;
+import com.dvsuperior.dscatalog.entities.Category;
+import com.dvsuperior.dscatalog.entities.Product;
+import com.dvsuperior.dscatalog.repositories.CatalogChangeRepository;
+import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import com.dvsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.dvsuperior.dscatalog.services.events.ChangeType;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.dvsuperior.dscatalog.services.exceptions.InvalidRequestException;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Hibernate;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed for catalog mirrors. Every product and category change event is appended to
+ * tb_catalog_change inside the transaction that made the change, so a change and its feed entry
+ * commit or roll back together. Readers page through the log by id, so a sync costs in
+ * proportion to the number of changes since its cursor rather than to the catalog size.
+ * <p>
+ * Ids come from a sequence at insert time, which alone would not match commit order: a
+ * transaction could take id 10, commit after another one took and committed id 11, and a reader
+ * already past 11 would never see 10. The log insert and the commit therefore run under one
+ * lock. Each transaction flushes its own changes before taking it, and releases it as soon as
+ * the commit is done, ahead of the after-commit listeners (search index, statistics, caches),
+ * so the lock covers the log insert, the commit and the hand-off to the stream. This assumes
+ * a single writing instance.
+ * <p>
+ * Committed changes are also pushed to /products/stream subscribers. Their payload is loaded the
+ * way the feed loads it, one query per entity type for the whole transaction, right before the
+ * commit, so a streamed change matches its /changes entry.
+ */
+@Service
+public class ChangeFeedService {
+
+    public static final int MAX_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final CatalogChangeRepository repository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ChangeBroadcaster broadcaster;
+    private final ReentrantLock commitLock = new ReentrantLock();
+
+    public ChangeFeedService(CatalogChangeRepository repository, ProductRepository productRepository,
+                             CategoryRepository categoryRepository, ChangeBroadcaster broadcaster) {
+        this.repository = repository;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.broadcaster = broadcaster;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        record(EntityType.PRODUCT, event.getId(), event.getType());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        record(EntityType.CATEGORY, event.getId(), event.getType());
+    }
+
+    /**
+     * Changes committed after {@code since}, oldest first. Each entry carries the current state
+     * of its row, loaded with one query per entity type for the whole page.
+     */
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public ChangeFeedDTO findChanges(long since, int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new InvalidRequestException("size must be between 1 and " + MAX_SIZE);
+        }
+        List<CatalogChange> changes = repository.findAfter(since, PageRequest.of(0, size + 1));
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes = changes.subList(0, size);
+        }
+
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getId();
+        return new ChangeFeedDTO(toDtos(changes), next, hasMore);
+    }
+
+    /**
+     * Opens a change stream. With a last event id, the changes committed after it are sent first,
+     * up to one feed page; a client further behind is told to catch up through /changes instead.
+     */
+    // the backlog comes from the primary: a replica could still miss a change committed just before
+    // the subscription, and the live events that follow would move the client's Last-Event-ID past it
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long lastEventId) {
+        // registered before the backlog is read, so changes committed meanwhile are buffered
+        ChangeBroadcaster.Subscription subscription = broadcaster.subscribe();
+        if (lastEventId == null) {
+            subscription.start(List.of(), 0L);
+            return subscription.getEmitter();
+        }
+        ChangeFeedDTO backlog = ReadYourWrites.onPrimary(() -> findChanges(lastEventId, MAX_SIZE));
+        if (backlog.isHasMore()) {
+            subscription.overflow(lastEventId);
+        } else {
+            subscription.start(backlog.getChanges(), backlog.getNext());
+        }
+        return subscription.getEmitter();
+    }
+
+    // current state of each changed row, absent for deletes and for rows deleted since. Rows the
+    // persistence context already holds, as after a single write, are not read again
+    private List<ChangeDTO> toDtos(List<CatalogChange> changes) {
+        Map<Long, Product> products = new HashMap<>();
+        Set<Long> productIds = new HashSet<>();
+        for (Long id : ids(changes, EntityType.PRODUCT)) {
+            Product product = em.getReference(Product.class, id);
+            if (Hibernate.isInitialized(product)) {
+                products.put(id, product);
+            } else {
+                productIds.add(id);
+            }
+        }
+        productRepository.findAllById(productIds).forEach(x -> products.put(x.getId(), x));
+        List<Product> withoutCategories = products.values().stream()
+                .filter(x -> !Hibernate.isInitialized(x.getCategories()))
+                .collect(Collectors.toList());
+        if (!withoutCategories.isEmpty()) {
+            productRepository.findProductsWithCategories(withoutCategories);
+        }
+        Map<Long, Category> categories = categoryRepository.findAllById(ids(changes, EntityType.CATEGORY)).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        List<ChangeDTO> content = new ArrayList<>(changes.size());
+        for (CatalogChange change : changes) {
+            Product product = change.getEntityType() == EntityType.PRODUCT ? products.get(change.getEntityId()) : null;
+            Category category = change.getEntityType() == EntityType.CATEGORY ? categories.get(change.getEntityId()) : null;
+            content.add(new ChangeDTO(change,
+                    product == null ? null : new ProductDTO(product, product.getCategories()),
+                    category == null ? null : new CategoryDTO(category)));
+        }
+        return content;
+    }
+
+    private static Set<Long> ids(List<CatalogChange> changes, EntityType type) {
+        return changes.stream()
+                .filter(x -> x.getEntityType() == type && x.getOperation() != CatalogChange.Operation.DELETE)
+                .map(CatalogChange::getEntityId)
+                .collect(Collectors.toSet());
+    }
+
+    private void record(EntityType entityType, Long id, ChangeType type) {
+        List<CatalogChange> pending = holdCommitLock();
+        CatalogChange change = repository.save(
+                new CatalogChange(entityType, id, CatalogChange.Operation.valueOf(type.name()), Instant.now()));
+        if (pending == null) {
+            broadcaster.publish(toDtos(List.of(change)));
+        } else {
+            pending.add(change);
+        }
+    }
+
+    /**
+     * Takes the commit lock once per transaction, after flushing the transaction's pending
+     * changes, and releases it right after the commit, or on rollback. Returns the list the
+     * transaction's log entries are collected in, or null outside a transaction.
+     */
+    @SuppressWarnings("unchecked")
+    private List<CatalogChange> holdCommitLock() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        if (TransactionSynchronizationManager.hasResource(commitLock)) {
+            return (List<CatalogChange>) TransactionSynchronizationManager.getResource(commitLock);
+        }
+        // row locks are taken here, before the lock: whoever holds it only appends and commits
+        em.flush();
+        commitLock.lock();
+        List<CatalogChange> pending = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(commitLock, pending);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean held = true;
+            private List<ChangeDTO> changes;
+
+            // ahead of the synchronizations of other listeners, whatever order they were registered in
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            // registered during the before-commit phase, so this is the first callback it gets; it
+            // runs after every log entry of the transaction is in, still inside the transaction
+            @Override
+            public void beforeCompletion() {
+                changes = toDtos(pending);
+            }
+
+            @Override
+            public void afterCommit() {
+                try {
+                    // still under the lock, so subscribers see changes in commit order
+                    broadcaster.publish(changes != null ? changes : pending.stream()
+                            .map(x -> new ChangeDTO(x, null, null)).collect(Collectors.toList()));
+                } finally {
+                    release();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(commitLock);
+                release();
+            }
+
+            private void release() {
+                if (held) {
+                    held = false;
+                    commitLock.unlock();
+                }
+            }
+        });
+        return pending;
+    }
+}
@@ -0,0 +1,31 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.services.exceptions.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * How a listing reports its total: an exact COUNT(*) per request, nothing at all, or a cached
+ * approximation refreshed in the background by CatalogCounts.
+ */
+public enum CountMode {
+    EXACT,
+    NONE,
+    APPROXIMATE;
+
+    public static CountMode of(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "exact":
+                return EXACT;
+            case "false":
+            case "none":
+                return NONE;
+            case "approx":
+            case "approximate":
+                return APPROXIMATE;
+            default:
+                throw new InvalidRequestException("Unsupported count mode " + value);
+        }
+    }
+}
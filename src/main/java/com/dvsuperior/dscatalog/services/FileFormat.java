@@ -0,0 +1,28 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.services.exceptions.InvalidRequestException;
+
+import java.util.Locale;
+
+public enum FileFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    FileFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public static FileFormat of(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported format " + value);
+        }
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,109 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.services.exceptions.InvalidRequestException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Position of a keyset (seek) page: the sort key, its direction and the last
+ * (value, id) pair the client has seen. Travels as an opaque base64url token; a null value is
+ * written by leaving its field out, so it cannot be confused with the string "null".
+ */
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "\n";
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Object value;
+    private final Long id;
+
+    private KeysetCursor(String property, Sort.Direction direction, Object value, Long id) {
+        this.property = property;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Cursor for the first page, taken from the first order of {@code sort} (id ascending when unsorted).
+     */
+    public static KeysetCursor first(Sort sort, Map<String, Class<?>> keys) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        if (!keys.containsKey(order.getProperty())) {
+            throw new InvalidRequestException("Unsupported sort key " + order.getProperty());
+        }
+        return new KeysetCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    public static KeysetCursor decode(String token, Map<String, Class<?>> keys) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            Class<?> type = keys.get(parts[0]);
+            if (parts.length < 3 || type == null) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            Object value = parts.length == 4 ? parse(parts[3], type) : null;
+            return new KeysetCursor(parts[0], Sort.Direction.fromString(parts[1]), value, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Cursor pointing right after {@code last}, which must expose the sort key and an id as bean properties.
+     */
+    public KeysetCursor after(Object last) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(last);
+        return new KeysetCursor(property, direction, wrapper.getPropertyValue(property),
+                ((Number) wrapper.getPropertyValue("id")).longValue());
+    }
+
+    public String encode() {
+        String raw = property + SEPARATOR + direction + SEPARATOR + id + (value == null ? "" : SEPARATOR + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    private static Object parse(String value, Class<?> type) {
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == Double.class) {
+            return Double.valueOf(value);
+        }
+        if (type == Instant.class) {
+            try {
+                return Instant.parse(value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,498 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.BatchItemResultDTO;
+import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.DTO.ImportResultDTO;
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.entities.Category;
+import com.dvsuperior.dscatalog.entities.Product;
+import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.dvsuperior.dscatalog.repositories.ProductCategoryLink;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent.Snapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Multi-row operations for the catalog feeds. Work is split in chunks of
+ * dscatalog.batch.chunk-size rows, each committed in its own transaction and flushed
+ * with JDBC batching, so one bad chunk only fails its own rows.
+ */
+@Service
+public class ProductBulkService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductBulkService.class);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final ProductRepository repository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectWriter jsonWriter;
+    private final ObjectReader jsonReader;
+    private final int chunkSize;
+
+    public ProductBulkService(ProductRepository repository, CategoryRepository categoryRepository,
+                              TransactionTemplate transactionTemplate, ApplicationEventPublisher publisher,
+                              ObjectMapper objectMapper, @Value("${dscatalog.batch.chunk-size}") int chunkSize) {
+        this.repository = repository;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.publisher = publisher;
+        this.jsonWriter = objectMapper.writerFor(ProductDTO.class);
+        this.jsonReader = objectMapper.readerFor(ProductDTO.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Writes every product to {@code out} as it is read from a forward-only cursor, so heap use
+     * does not depend on the catalog size. Category ids come from a second cursor in the same
+     * order, merged as they go. Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportTo(OutputStream out, FileFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == FileFormat.CSV) {
+            writer.write("id,name,description,price,imgUrl,date,categories\n");
+        }
+        long count = 0;
+        try (Stream<Product> products = repository.streamAll();
+             Stream<ProductCategoryLink> links = repository.streamCategoryLinks()) {
+            Iterator<ProductCategoryLink> linkIterator = links.iterator();
+            ProductCategoryLink link = linkIterator.hasNext() ? linkIterator.next() : null;
+            for (Product product : (Iterable<Product>) products::iterator) {
+                ProductDTO dto = new ProductDTO(product);
+                em.detach(product);
+                while (link != null && link.getProductId() <= dto.getId()) {
+                    if (link.getProductId().equals(dto.getId())) {
+                        dto.getCategories().add(new CategoryDTO(link.getCategoryId(), null));
+                    }
+                    link = linkIterator.hasNext() ? linkIterator.next() : null;
+                }
+                if (format == FileFormat.CSV) {
+                    writeCsv(writer, dto);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    public List<BatchItemResultDTO> insertAll(List<ProductDTO> dtos) {
+        Map<Long, Category> categories = findCategories(dtos);
+        List<BatchItemResultDTO> results = new ArrayList<>(Collections.nCopies(dtos.size(), null));
+        Chunk chunk = new Chunk(chunkSize);
+
+        for (int i = 0; i < dtos.size(); i++) {
+            if (dtos.get(i) == null) {
+                results.set(i, BatchItemResultDTO.failed(i, null, "Item must not be null"));
+                continue;
+            }
+            String invalid = checkCategories(dtos.get(i), categories);
+            if (invalid != null) {
+                results.set(i, BatchItemResultDTO.failed(i, null, invalid));
+                continue;
+            }
+            chunk.add(i, dtos.get(i));
+            if (chunk.isFull()) {
+                insertChunk(chunk, categories).forEach(x -> results.set(x.getIndex(), x));
+            }
+        }
+        insertChunk(chunk, categories).forEach(x -> results.set(x.getIndex(), x));
+        return results;
+    }
+
+    /**
+     * Updates existing products by id. Categories are resolved with one query for the whole
+     * batch; each chunk loads its products (and their category links) with one query each,
+     * applies the changes in memory and flushes them as batched UPDATEs. Null items, items without
+     * an id, with an unknown id, or with missing or unknown categories fail individually.
+     */
+    public List<BatchItemResultDTO> updateAll(List<ProductDTO> dtos) {
+        Map<Long, Category> categories = findCategories(dtos);
+        List<BatchItemResultDTO> results = new ArrayList<>(Collections.nCopies(dtos.size(), null));
+        Chunk chunk = new Chunk(chunkSize);
+
+        for (int i = 0; i < dtos.size(); i++) {
+            ProductDTO dto = dtos.get(i);
+            if (dto == null) {
+                results.set(i, BatchItemResultDTO.failed(i, null, "Item must not be null"));
+                continue;
+            }
+            if (dto.getId() == null) {
+                results.set(i, BatchItemResultDTO.failed(i, null, "Id is required"));
+                continue;
+            }
+            String invalid = checkCategories(dto, categories);
+            if (invalid != null) {
+                results.set(i, BatchItemResultDTO.failed(i, dto.getId(), invalid));
+                continue;
+            }
+            chunk.add(i, dto);
+            if (chunk.isFull()) {
+                updateChunk(chunk, categories).forEach(x -> results.set(x.getIndex(), x));
+            }
+        }
+        updateChunk(chunk, categories).forEach(x -> results.set(x.getIndex(), x));
+        return results;
+    }
+
+    /**
+     * Reads products from {@code reader} one record at a time and inserts them in chunked
+     * transactions. Only the current chunk is held in memory; the whole category table is
+     * loaded once up front to resolve references. Record numbers in the result are 1-based.
+     * A CSV quoted field left open runs to the end of the input, so it fails its record and
+     * ends the import there.
+     */
+    public ImportResultDTO importFrom(Reader reader, FileFormat format) throws IOException {
+        Map<Long, Category> categories = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        ImportResultDTO summary = new ImportResultDTO();
+        Chunk chunk = new Chunk(chunkSize);
+        RecordSource source = format == FileFormat.CSV
+                ? new CsvSource(new CsvReader(reader))
+                : new JsonLineSource(new BufferedReader(reader), jsonReader);
+
+        int number = 0;
+        while (true) {
+            ProductDTO dto;
+            try {
+                dto = source.next();
+                number++;
+            } catch (JsonProcessingException | IllegalArgumentException | DateTimeException e) {
+                number++;
+                summary.add(BatchItemResultDTO.failed(number, null, "Invalid record: " + e.getMessage()));
+                continue;
+            }
+            if (dto == null) {
+                break;
+            }
+            String invalid = checkCategories(dto, categories);
+            if (invalid != null) {
+                summary.add(BatchItemResultDTO.failed(number, null, invalid));
+                continue;
+            }
+            chunk.add(number, dto);
+            if (chunk.isFull()) {
+                importChunk(chunk, categories, summary);
+            }
+        }
+        importChunk(chunk, categories, summary);
+        LOG.info("Product import finished: {} records, {} imported, {} failed", summary.getProcessed(),
+                summary.getImported(), summary.getFailed());
+        return summary;
+    }
+
+    private void importChunk(Chunk chunk, Map<Long, Category> categories, ImportResultDTO summary) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        insertChunk(chunk, categories).forEach(summary::add);
+        summary.chunkCommitted();
+        LOG.info("Product import progress: {} records, {} imported, {} failed", summary.getProcessed(),
+                summary.getImported(), summary.getFailed());
+    }
+
+    /**
+     * Inserts and commits one chunk, then empties it. On failure every row of the chunk is reported failed.
+     */
+    private List<BatchItemResultDTO> insertChunk(Chunk chunk, Map<Long, Category> categories) {
+        if (chunk.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<BatchItemResultDTO> results = new ArrayList<>(chunk.size());
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Product> entities = new ArrayList<>(chunk.size());
+                for (ProductDTO dto : chunk.dtos) {
+                    Product entity = new Product();
+                    copyDtoToEntity(dto, entity, categories);
+                    entities.add(entity);
+                }
+                repository.saveAll(entities);
+                repository.flush();
+                entities.forEach(x -> publisher.publishEvent(ProductChangedEvent.inserted(x)));
+                return entities.stream().map(Product::getId).collect(Collectors.toList());
+            });
+            for (int k = 0; k < chunk.size(); k++) {
+                results.add(BatchItemResultDTO.created(chunk.indexes.get(k), ids.get(k)));
+            }
+        } catch (DataAccessException | TransactionException e) {
+            String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+            chunk.indexes.forEach(index -> results.add(BatchItemResultDTO.failed(index, null, message)));
+        }
+        chunk.clear();
+        return results;
+    }
+
+    /**
+     * Updates and commits one chunk, then empties it. Ids that no longer exist fail on their own;
+     * on any other failure every row of the chunk is reported failed.
+     */
+    private List<BatchItemResultDTO> updateChunk(Chunk chunk, Map<Long, Category> categories) {
+        if (chunk.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<BatchItemResultDTO> results;
+        try {
+            results = transactionTemplate.execute(status -> {
+                List<Product> loaded = repository.findAllById(chunk.dtos.stream().map(ProductDTO::getId)
+                        .collect(Collectors.toSet()));
+                if (!loaded.isEmpty()) {
+                    repository.findProductsWithCategories(loaded);
+                }
+                Map<Long, Product> products = loaded.stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+                Map<Long, Snapshot> previous = loaded.stream()
+                        .collect(Collectors.toMap(Product::getId, Snapshot::of));
+                List<BatchItemResultDTO> chunkResults = new ArrayList<>(chunk.size());
+                for (int k = 0; k < chunk.size(); k++) {
+                    ProductDTO dto = chunk.dtos.get(k);
+                    Product entity = products.get(dto.getId());
+                    if (entity == null) {
+                        chunkResults.add(BatchItemResultDTO.failed(chunk.indexes.get(k), dto.getId(),
+                                "Id not found " + dto.getId()));
+                        continue;
+                    }
+                    copyDtoToEntity(dto, entity, categories);
+                    chunkResults.add(BatchItemResultDTO.updated(chunk.indexes.get(k), dto.getId()));
+                }
+                repository.flush();
+                loaded.forEach(x -> publisher.publishEvent(ProductChangedEvent.updated(x, previous.get(x.getId()))));
+                return chunkResults;
+            });
+        } catch (DataAccessException | TransactionException e) {
+            String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+            results = new ArrayList<>(chunk.size());
+            for (int k = 0; k < chunk.size(); k++) {
+                results.add(BatchItemResultDTO.failed(chunk.indexes.get(k), chunk.dtos.get(k).getId(), message));
+            }
+        }
+        chunk.clear();
+        return results;
+    }
+
+    private void writeCsv(Writer writer, ProductDTO dto) throws IOException {
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writer.write(csv(dto.getName()));
+        writer.write(',');
+        writer.write(csv(dto.getDescription()));
+        writer.write(',');
+        writer.write(dto.getPrice() == null ? "" : dto.getPrice().toString());
+        writer.write(',');
+        writer.write(csv(dto.getImgUrl()));
+        writer.write(',');
+        writer.write(dto.getDate() == null ? "" : dto.getDate().toString());
+        writer.write(',');
+        // same format as the categories column read by the import
+        writer.write(dto.getCategories().stream().map(x -> String.valueOf(x.getId())).collect(Collectors.joining(";")));
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // null items and items with null categories are skipped here, and fail on their own later
+    private Map<Long, Category> findCategories(List<ProductDTO> dtos) {
+        Set<Long> ids = dtos.stream()
+                .filter(Objects::nonNull)
+                .map(ProductDTO::getCategories)
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .filter(Objects::nonNull)
+                .map(CategoryDTO::getId)
+                .collect(Collectors.toSet());
+        return categoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
+
+    /**
+     * Why the item's categories cannot be applied, or null when they can.
+     */
+    private static String checkCategories(ProductDTO dto, Map<Long, Category> categories) {
+        if (dto.getCategories() == null || dto.getCategories().contains(null)) {
+            return "Categories must not be null";
+        }
+        return dto.getCategories().stream()
+                .map(CategoryDTO::getId)
+                .filter(id -> !categories.containsKey(id))
+                .findFirst()
+                .map(id -> "Category not found " + id)
+                .orElse(null);
+    }
+
+    private void copyDtoToEntity(ProductDTO dto, Product entity, Map<Long, Category> categories) {
+        entity.setName(dto.getName());
+        entity.setDescription(dto.getDescription());
+        entity.setDate(dto.getDate());
+        entity.setImgUrl(dto.getImgUrl());
+        entity.setPrice(dto.getPrice());
+
+        // categories come from the pre-loaded map, no lookup per row
+        CategoryLinks.apply(entity, dto.getCategories().stream().map(CategoryDTO::getId).collect(Collectors.toList()),
+                categories::get);
+    }
+
+    private static class Chunk {
+        private final int capacity;
+        private final List<Integer> indexes;
+        private final List<ProductDTO> dtos;
+
+        Chunk(int capacity) {
+            this.capacity = capacity;
+            this.indexes = new ArrayList<>(capacity);
+            this.dtos = new ArrayList<>(capacity);
+        }
+
+        void add(int index, ProductDTO dto) {
+            indexes.add(index);
+            dtos.add(dto);
+        }
+
+        int size() {
+            return dtos.size();
+        }
+
+        boolean isEmpty() {
+            return dtos.isEmpty();
+        }
+
+        boolean isFull() {
+            return dtos.size() >= capacity;
+        }
+
+        void clear() {
+            indexes.clear();
+            dtos.clear();
+        }
+    }
+
+    private interface RecordSource {
+        /**
+         * Next record, or null at end of input.
+         */
+        ProductDTO next() throws IOException;
+    }
+
+    private static class JsonLineSource implements RecordSource {
+        private final BufferedReader reader;
+        private final ObjectReader jsonReader;
+
+        JsonLineSource(BufferedReader reader, ObjectReader jsonReader) {
+            this.reader = reader;
+            this.jsonReader = jsonReader;
+        }
+
+        @Override
+        public ProductDTO next() throws IOException {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                line = reader.readLine();
+            }
+            return line == null ? null : jsonReader.readValue(line);
+        }
+    }
+
+    private static class CsvSource implements RecordSource {
+        private final CsvReader reader;
+        private Map<String, Integer> header;
+
+        CsvSource(CsvReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ProductDTO next() throws IOException {
+            if (header == null) {
+                List<String> names = reader.next();
+                if (names == null) {
+                    return null;
+                }
+                header = new HashMap<>();
+                for (int i = 0; i < names.size(); i++) {
+                    header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            List<String> fields = reader.next();
+            if (fields == null) {
+                return null;
+            }
+            ProductDTO dto = new ProductDTO();
+            dto.setName(field(fields, "name"));
+            dto.setDescription(field(fields, "description"));
+            String price = field(fields, "price");
+            dto.setPrice(price == null ? null : Double.valueOf(price));
+            dto.setImgUrl(field(fields, "imgurl"));
+            String date = field(fields, "date");
+            dto.setDate(date == null ? null : Instant.parse(date));
+            // optional column with category ids separated by ';'
+            String categories = field(fields, "categories");
+            if (categories != null) {
+                for (String id : categories.split(";")) {
+                    dto.getCategories().add(new CategoryDTO(Long.parseLong(id.trim()), null));
+                }
+            }
+            return dto;
+        }
+
+        private String field(List<String> fields, String name) {
+            Integer index = header.get(name);
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+    }
+}
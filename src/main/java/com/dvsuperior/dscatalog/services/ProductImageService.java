@@ -0,0 +1,187 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.entities.Product;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent.Snapshot;
+import com.dvsuperior.dscatalog.services.exceptions.InvalidRequestException;
+import com.dvsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Product images hosted on local disk under dscatalog.images.dir. Files are named after the
+ * SHA-256 of their bytes, so identical uploads share one file and a file never changes once
+ * written. The product keeps the hash, and its imgUrl points at GET /products/{id}/image with the
+ * hash as version, which lets that URL be cached for good.
+ */
+@Service
+public class ProductImageService {
+
+    private static final Set<String> CONTENT_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
+
+    private final ProductRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final Path dir;
+    private final long maxBytes;
+    private final String baseUrl;
+
+    public ProductImageService(ProductRepository repository, TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher publisher,
+                               @Value("${dscatalog.images.dir}") String dir,
+                               @Value("${dscatalog.images.max-bytes}") long maxBytes,
+                               @Value("${dscatalog.images.base-url}") String baseUrl) throws IOException {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.publisher = publisher;
+        this.dir = Files.createDirectories(Paths.get(dir));
+        this.maxBytes = maxBytes;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Streams the upload to disk, then points the product at it. No transaction is open while the
+     * body is read, so slow uploads do not hold a connection.
+     */
+    @Timed("dscatalog.service")
+    public ProductDTO storeImage(Long id, String contentType, InputStream body) {
+        // parameters such as charset are dropped
+        String type = contentType == null ? null : contentType.split(";", 2)[0].trim().toLowerCase();
+        if (type == null || !CONTENT_TYPES.contains(type)) {
+            throw new InvalidRequestException("Content-Type must be one of " + CONTENT_TYPES);
+        }
+        if (!repository.existsById(id)) {
+            throw new ResourceNotFoundException("Id not found " + id);
+        }
+        String hash = write(body);
+        return transactionTemplate.execute(status -> {
+            Product entity = repository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+            Snapshot previous = Snapshot.of(entity);
+            entity.setImgHash(hash);
+            entity.setImgContentType(type);
+            entity.setImgUrl(baseUrl + "/products/" + id + "/image?v=" + hash);
+            publisher.publishEvent(ProductChangedEvent.updated(entity, previous));
+            return new ProductDTO(entity, entity.getCategories());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public StoredImage findImage(Long id) {
+        Product entity = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+        if (entity.getImgHash() == null) {
+            throw new ResourceNotFoundException("No local image for product " + id);
+        }
+        Path path = dir.resolve(entity.getImgHash());
+        try {
+            return new StoredImage(path, entity.getImgContentType(), entity.getImgHash(), Files.size(path));
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("Image file missing for product " + id);
+        }
+    }
+
+    // hashes while copying, through a fixed buffer; the temp file is renamed to the hash at the end
+    private String write(InputStream body) {
+        MessageDigest digest = sha256();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(dir, "upload-", ".tmp");
+            long total = 0;
+            try (InputStream in = new DigestInputStream(body, digest); OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    total += n;
+                    if (total > maxBytes) {
+                        throw new InvalidRequestException("Image larger than " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, n);
+                }
+            }
+            if (total == 0) {
+                throw new InvalidRequestException("Image is empty");
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = dir.resolve(hash);
+            if (!Files.exists(target)) {
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // same bytes uploaded concurrently
+                }
+            }
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    // left for the next cleanup of *.tmp files
+                }
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class StoredImage {
+        private final Path path;
+        private final String contentType;
+        private final String hash;
+        private final long length;
+
+        private StoredImage(Path path, String contentType, String hash, long length) {
+            this.path = path;
+            this.contentType = contentType;
+            this.hash = hash;
+            this.length = length;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+}
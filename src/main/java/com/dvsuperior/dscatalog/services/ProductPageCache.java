@@ -0,0 +1,173 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Final JSON bytes (and their gzip form) of unfiltered GET /products pages, keyed by view, page,
+ * size and sort. Every committed product or category change bumps a catalog-wide generation;
+ * entries from an older generation are never served. Memory is bounded by
+ * dscatalog.page-cache.max-bytes with least-recently-used eviction.
+ */
+@Component
+public class ProductPageCache {
+
+    // below this, gzip framing costs more than it saves
+    private static final int GZIP_THRESHOLD = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final AtomicLong generation = new AtomicLong();
+    private final LinkedHashMap<String, CachedPage> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ProductPageCache(ObjectMapper objectMapper, @Value("${dscatalog.page-cache.max-bytes}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+    }
+
+    public static String key(ProductView view, Pageable pageable) {
+        return view + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort();
+    }
+
+    /**
+     * Returns the cached page, or serializes the one produced by loader and caches it. The
+     * generation is read before loading, so a page computed across a change is stored as stale.
+     */
+    public CachedPage get(String key, Supplier<?> loader) {
+        long current = generation.get();
+        synchronized (this) {
+            CachedPage page = pages.get(key);
+            if (page != null && page.generation == current) {
+                Metrics.counter("dscatalog.page.cache", "result", "hit").increment();
+                return page;
+            }
+        }
+        Metrics.counter("dscatalog.page.cache", "result", "miss").increment();
+        CachedPage page = CachedPage.of(current, serialize(loader.get()));
+        if (page.size() <= maxBytes) {
+            put(key, page);
+        }
+        return page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate();
+    }
+
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        pages.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized long size() {
+        return totalBytes;
+    }
+
+    private synchronized void put(String key, CachedPage page) {
+        if (page.generation != generation.get()) {
+            return;
+        }
+        CachedPage previous = pages.put(key, page);
+        totalBytes += page.size() - (previous == null ? 0 : previous.size());
+        Iterator<CachedPage> eldest = pages.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static final class CachedPage {
+        private final long generation;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String eTag;
+        private final String gzipETag;
+
+        private CachedPage(long generation, byte[] json, byte[] gzip, String eTag) {
+            this.generation = generation;
+            this.json = json;
+            this.gzip = gzip;
+            this.eTag = eTag;
+            // a strong ETag identifies the exact bytes, so the gzip body needs its own
+            this.gzipETag = gzip == null ? null : eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+        }
+
+        private static CachedPage of(long generation, byte[] json) {
+            byte[] gzip = json.length >= GZIP_THRESHOLD ? compress(json) : null;
+            // same format as ShallowEtagHeaderFilter, so ETags clients already hold stay valid
+            StringBuilder eTag = new StringBuilder("\"0");
+            DigestUtils.appendMd5DigestAsHex(json, eTag);
+            return new CachedPage(generation, json, gzip, eTag.append('"').toString());
+        }
+
+        private static byte[] compress(byte[] json) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Null for small pages that are not worth compressing.
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * ETag of the gzip body, null when there is none.
+         */
+        public String getGzipETag() {
+            return gzipETag;
+        }
+
+        private long size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.entities.Product;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import com.dvsuperior.dscatalog.services.events.ChangeType;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-process inverted index over Product.name and Product.description, ranked with BM25.
+ * Built from the database at startup and kept current from committed ProductChangedEvents,
+ * so searches never hit the database; only the final page of ids is hydrated by the caller.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // name terms count this many times, a cheap stand-in for a per-field BM25F weight
+    private static final int NAME_BOOST = 3;
+    private static final int REBUILD_BATCH = 1000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final ProductRepository repository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by lock; rebuild() fills a new one off to the side and swaps it in
+    private Index index = new Index();
+    // guarded by lock; non-null while a rebuild runs, so changes committed meanwhile reach the new index
+    private List<Consumer<Index>> pending;
+
+    public ProductSearchIndex(ProductRepository repository) {
+        this.repository = repository;
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Loads every product in id order into a new index, analyzing each batch in parallel, then
+     * swaps it in. Searches keep using the current index until then, and changes indexed while
+     * loading are replayed onto the new one before the swap.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Index rebuilt = new Index();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        boolean loaded = false;
+        try {
+            List<Product> batch = repository.findAfter("id", Sort.Direction.ASC, null, null, REBUILD_BATCH);
+            while (!batch.isEmpty()) {
+                batch.parallelStream()
+                        .map(x -> Document.analyze(x.getId(), x.getName(), x.getDescription()))
+                        .collect(Collectors.toList())
+                        .forEach(rebuilt::put);
+                if (batch.size() < REBUILD_BATCH) {
+                    break;
+                }
+                Long lastId = batch.get(batch.size() - 1).getId();
+                batch = repository.findAfter("id", Sort.Direction.ASC, lastId, lastId, REBUILD_BATCH);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    pending.forEach(x -> x.accept(rebuilt));
+                    index = rebuilt;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        LOG.info("Product search index rebuilt with {} documents in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ChangeType.DELETE) {
+            remove(event.getId());
+        } else {
+            ProductDTO product = event.getProduct();
+            index(product.getId(), product.getName(), product.getDescription());
+        }
+    }
+
+    public void index(Long id, String name, String description) {
+        Document document = Document.analyze(id, name, description);
+        apply(x -> x.put(document));
+    }
+
+    public void remove(Long id) {
+        apply(x -> x.delete(id));
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index = new Index();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the matching products in rank order (best first), restricted to [offset, offset + limit).
+     */
+    public SearchResult search(String query, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        Map<Long, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int n = index.documents.size();
+            if (n == 0) {
+                return new SearchResult(Collections.emptyList(), 0);
+            }
+            double avgLength = (double) index.totalLength / n;
+            for (String term : terms) {
+                Map<Long, Integer> docs = index.postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+                for (Map.Entry<Long, Integer> posting : docs.entrySet()) {
+                    int tf = posting.getValue();
+                    double norm = K1 * (1 - B + B * index.documents.get(posting.getKey()).length / avgLength);
+                    scores.merge(posting.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .skip(offset)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        return new SearchResult(ids, scores.size());
+    }
+
+    private void apply(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static class Index {
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        private void put(Document document) {
+            delete(document.id);
+            documents.put(document.id, document);
+            totalLength += document.length;
+            document.terms.forEach((term, tf) -> postings.computeIfAbsent(term, x -> new HashMap<>()).put(document.id, tf));
+        }
+
+        private void delete(Long id) {
+            Document old = documents.remove(id);
+            if (old == null) {
+                return;
+            }
+            totalLength -= old.length;
+            for (String term : old.terms.keySet()) {
+                Map<Long, Integer> docs = postings.get(term);
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static class Document {
+        private final Long id;
+        private final Map<String, Integer> terms;
+        private final int length;
+
+        private Document(Long id, Map<String, Integer> terms, int length) {
+            this.id = id;
+            this.terms = terms;
+            this.length = length;
+        }
+
+        static Document analyze(Long id, String name, String description) {
+            Map<String, Integer> terms = new HashMap<>();
+            int length = 0;
+            for (String token : tokenize(name)) {
+                terms.merge(token, NAME_BOOST, Integer::sum);
+                length += NAME_BOOST;
+            }
+            for (String token : tokenize(description)) {
+                terms.merge(token, 1, Integer::sum);
+                length++;
+            }
+            return new Document(id, terms, length);
+        }
+    }
+
+    public static class SearchResult {
+        private final List<Long> ids;
+        private final long total;
+
+        public SearchResult(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
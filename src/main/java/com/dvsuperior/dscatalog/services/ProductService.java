@@ -1,68 +1,250 @@
 package com.dvsuperior.dscatalog.services;
 
+import com.dvsuperior.dscatalog.DTO.BulkDeleteResultDTO;
 import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.DTO.CursorPageDTO;
 import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.DTO.ProductLookupDTO;
+import com.dvsuperior.dscatalog.DTO.ProductPatchDTO;
+import com.dvsuperior.dscatalog.DTO.ProductSummaryDTO;
+import com.dvsuperior.dscatalog.DTO.SliceDTO;
 import com.dvsuperior.dscatalog.entities.Category;
 import com.dvsuperior.dscatalog.entities.Product;
 import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.dvsuperior.dscatalog.repositories.ProductCategoryPrice;
+import com.dvsuperior.dscatalog.repositories.ProductFilter;
 import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import com.dvsuperior.dscatalog.repositories.ProductVersion;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.dvsuperior.dscatalog.services.events.ProductChangedEvent.Snapshot;
 import com.dvsuperior.dscatalog.services.exceptions.DatabaseException;
+import com.dvsuperior.dscatalog.services.exceptions.InvalidRequestException;
 import com.dvsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
+    private static final Map<String, Class<?>> SORT_KEYS =
+            Map.of("id", Long.class, "name", String.class, "price", Double.class, "date", Instant.class);
+
     @Autowired
     private ProductRepository repository;
     @Autowired
     private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductSearchIndex searchIndex;
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    @Autowired
+    private CatalogCounts counts;
 
 
     @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
     public Page<ProductDTO> findAllPaged(Pageable pageable) {
         Page<Product> list = repository.findAll(pageable);
-        return list.map(x -> new ProductDTO(x));
+        fetchCategories(list.getContent());
+        return list.map(x -> new ProductDTO(x, x.getCategories()));
+    }
+
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public Page<ProductDTO> findAllPaged(ProductFilter filter, Pageable pageable) {
+        validate(filter);
+        Page<Product> list = repository.findAll(filter, pageable);
+        fetchCategories(list.getContent());
+        return list.map(x -> new ProductDTO(x, x.getCategories()));
+    }
+
+    /**
+     * Count-free listing: NONE returns no total, APPROXIMATE the cached one from CatalogCounts
+     * (only for unfiltered listings, the cached value is the whole catalog).
+     */
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public SliceDTO<ProductDTO> findAllSliced(ProductFilter filter, Pageable pageable, CountMode mode) {
+        validate(filter);
+        Slice<Product> list = repository.findSlice(filter, pageable);
+        fetchCategories(list.getContent());
+        return new SliceDTO<>(list.map(x -> new ProductDTO(x, x.getCategories())), approximateTotal(filter, mode));
+    }
+
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public Page<ProductSummaryDTO> findAllSummaries(ProductFilter filter, Pageable pageable) {
+        validate(filter);
+        return repository.findSummaries(filter, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public SliceDTO<ProductSummaryDTO> findAllSummariesSliced(ProductFilter filter, Pageable pageable, CountMode mode) {
+        validate(filter);
+        Slice<ProductSummaryDTO> list = repository.findSummarySlice(filter, pageable);
+        return new SliceDTO<>(list, approximateTotal(filter, mode));
+    }
+
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public CursorPageDTO<ProductDTO> findAllAfter(String after, Pageable pageable) {
+        KeysetCursor cursor = after == null || after.isEmpty()
+                ? KeysetCursor.first(pageable.getSort(), SORT_KEYS)
+                : KeysetCursor.decode(after, SORT_KEYS);
+        int size = pageable.getPageSize();
+        List<Product> list = repository.findAfter(cursor.getProperty(), cursor.getDirection(),
+                cursor.getValue(), cursor.getId(), size + 1);
+
+        String next = null;
+        if (list.size() > size) {
+            list = list.subList(0, size);
+            next = cursor.after(list.get(size - 1)).encode();
+        }
+        fetchCategories(list);
+        return new CursorPageDTO<>(list.stream().map(x -> new ProductDTO(x, x.getCategories()))
+                .collect(Collectors.toList()), size, next);
+    }
+
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public Page<ProductDTO> search(String query, Pageable pageable) {
+        ProductSearchIndex.SearchResult result = searchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        if (result.getIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.getTotal());
+        }
+        Map<Long, Product> products = repository.findAllById(result.getIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        fetchCategories(List.copyOf(products.values()));
+
+        List<ProductDTO> content = result.getIds().stream()
+                .map(products::get)
+                .filter(x -> x != null)
+                .map(x -> new ProductDTO(x, x.getCategories()))
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, result.getTotal());
+    }
+
+    /**
+     * Multi-get: one query for the products and one for their categories, whatever the number of
+     * ids. Unknown ids are reported in {@code missing} instead of failing the request.
+     */
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public ProductLookupDTO findAllByIds(Collection<Long> ids) {
+        Set<Long> requested = requireIds(ids, ProductLookupDTO.MAX_IDS);
+        List<Product> found = repository.findAllById(requested);
+        fetchCategories(found);
+        Map<Long, Product> products = found.stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<ProductDTO> content = new ArrayList<>(products.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Product product = products.get(id);
+            if (product == null) {
+                missing.add(id);
+            } else {
+                content.add(new ProductDTO(product, product.getCategories()));
+            }
+        }
+        return new ProductLookupDTO(content, missing);
     }
 
     @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
     public ProductDTO findById(Long id) {
         Optional<Product> obj = repository.findById(id);
         Product entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
         return new ProductDTO(entity, entity.getCategories());
     }
 
+    /**
+     * Strong ETag of GET /products/{id}, computed without loading the entity graph.
+     */
+    @Transactional(readOnly = true)
+    @Timed("dscatalog.service")
+    public String findVersionTag(Long id) {
+        ProductVersion version = repository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+        return "\"" + id + "-" + version.getVersion() + "-" + version.getCategoryVersions() + "\"";
+    }
+
     @Transactional
+    @Timed("dscatalog.service")
     public ProductDTO insertProduct(ProductDTO dto) {
         Product entity = new Product();
         copyDtoToEntity(dto, entity);
         entity = repository.save(entity);
-        return new ProductDTO(entity);
+        ProductDTO result = new ProductDTO(entity);
+        publisher.publishEvent(ProductChangedEvent.inserted(entity));
+        return result;
     }
 
     @Transactional
+    @Timed("dscatalog.service")
     public ProductDTO updateProduct(Long id, ProductDTO dto) {
         try {
             Product entity = repository.getReferenceById(id);
+            Snapshot previous = Snapshot.of(entity);
             copyDtoToEntity(dto, entity);
             entity = repository.save(entity);
-            return new ProductDTO(entity);
+            ProductDTO result = new ProductDTO(entity);
+            publisher.publishEvent(ProductChangedEvent.updated(entity, previous));
+            return result;
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Id not found " + id);
         }
     }
 
+    /**
+     * Partial update: absent fields keep their value and nothing is written (nor published)
+     * when the patch matches the current state.
+     */
+    @Transactional
+    @Timed("dscatalog.service")
+    public ProductDTO patchProduct(Long id, ProductPatchDTO dto) {
+        Product entity = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+        Snapshot previous = Snapshot.of(entity);
+        if (copyPatchToEntity(dto, entity)) {
+            publisher.publishEvent(ProductChangedEvent.updated(entity, previous));
+        }
+        return new ProductDTO(entity);
+    }
+
+    @Transactional
+    @Timed("dscatalog.service")
     public void deleteProduct(Long id) {
         try {
+            Snapshot previous = snapshots(repository.findCategoryPrices(List.of(id))).get(id);
             repository.deleteById(id);
+            // surfaces integrity violations here rather than at commit, where they would escape the catch below
+            repository.flush();
+            publisher.publishEvent(ProductChangedEvent.deleted(id, previous));
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException(("Id not found " + id));
         } catch (DataIntegrityViolationException e) {
@@ -70,6 +252,70 @@ public class ProductService {
         }
     }
 
+    /**
+     * Set-based delete: one SELECT for the ids that exist, then one DELETE for their category links
+     * and one for the products, regardless of how many ids are given.
+     */
+    @Transactional
+    @Timed("dscatalog.service")
+    public BulkDeleteResultDTO deleteProducts(Collection<Long> ids) {
+        Set<Long> requested = requireIds(ids, BulkDeleteResultDTO.MAX_IDS);
+        List<Long> existing = repository.findExistingIds(requested);
+        Map<Long, Snapshot> previous = existing.isEmpty()
+                ? Collections.emptyMap() : snapshots(repository.findCategoryPrices(existing));
+        try {
+            repository.bulkDelete(existing);
+        } catch (DataIntegrityViolationException e) {
+            throw new DatabaseException("Integrity violation");
+        }
+        existing.forEach(id -> publisher.publishEvent(ProductChangedEvent.deleted(id, previous.get(id))));
+        requested.removeAll(existing);
+        return new BulkDeleteResultDTO(existing, new ArrayList<>(requested), new ArrayList<>());
+    }
+
+    // one row per (product, category) link, or a single row with a null category
+    private static Map<Long, Snapshot> snapshots(List<ProductCategoryPrice> rows) {
+        Map<Long, Snapshot> result = new HashMap<>();
+        for (ProductCategoryPrice row : rows) {
+            Snapshot snapshot = result.computeIfAbsent(row.getProductId(), id -> new Snapshot(row.getPrice(), new HashSet<>()));
+            if (row.getCategoryId() != null) {
+                snapshot.getCategoryIds().add(row.getCategoryId());
+            }
+        }
+        return result;
+    }
+
+    static Set<Long> requireIds(Collection<Long> ids, int max) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.isEmpty()) {
+            throw new InvalidRequestException("ids must not be empty");
+        }
+        if (requested.size() > max) {
+            throw new InvalidRequestException("At most " + max + " ids per request");
+        }
+        return requested;
+    }
+
+    private Long approximateTotal(ProductFilter filter, CountMode mode) {
+        return mode == CountMode.APPROXIMATE && filter.isEmpty() ? counts.products() : null;
+    }
+
+    private void validate(ProductFilter filter) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new InvalidRequestException("minPrice must not be greater than maxPrice");
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+    }
+
+    private void fetchCategories(List<Product> products) {
+        if (!products.isEmpty()) {
+            repository.findProductsWithCategories(products);
+        }
+    }
+
     private void copyDtoToEntity(ProductDTO dto, Product entity) {
         entity.setName(dto.getName());
         entity.setDescription(dto.getDescription());
@@ -77,10 +323,42 @@ public class ProductService {
         entity.setImgUrl(dto.getImgUrl());
         entity.setPrice(dto.getPrice());
 
-        entity.getCategories().clear();
-        for (CategoryDTO catDTO : dto.getCategories()) {
-            Category category = categoryRepository.getReferenceById(catDTO.getId());
-            entity.getCategories().add(category);
+        CategoryLinks.apply(entity, dto.getCategories().stream().map(CategoryDTO::getId).collect(Collectors.toList()),
+                categoryRepository::getReferenceById);
+    }
+
+    /**
+     * Copies the supplied fields only. Together with @DynamicUpdate on Product, the UPDATE
+     * statement then lists just the columns whose value actually changed.
+     */
+    private boolean copyPatchToEntity(ProductPatchDTO dto, Product entity) {
+        boolean changed = false;
+        if (dto.getName() != null && !dto.getName().equals(entity.getName())) {
+            entity.setName(dto.getName());
+            changed = true;
+        }
+        if (dto.getDescription() != null && !dto.getDescription().equals(entity.getDescription())) {
+            entity.setDescription(dto.getDescription());
+            changed = true;
+        }
+        if (dto.getPrice() != null && !dto.getPrice().equals(entity.getPrice())) {
+            entity.setPrice(dto.getPrice());
+            changed = true;
+        }
+        if (dto.getImgUrl() != null && !dto.getImgUrl().equals(entity.getImgUrl())) {
+            entity.setImgUrl(dto.getImgUrl());
+            changed = true;
+        }
+        if (dto.getDate() != null && !dto.getDate().equals(entity.getDate())) {
+            entity.setDate(dto.getDate());
+            changed = true;
+        }
+        if (dto.getCategories() != null) {
+            List<Long> ids = dto.getCategories().stream().map(CategoryDTO::getId).collect(Collectors.toList());
+            // only the added categories are looked up, usually from the second-level cache
+            changed |= CategoryLinks.apply(entity, ids, categoryId -> categoryRepository.findById(categoryId)
+                    .orElseThrow(() -> new InvalidRequestException("Category not found " + categoryId)));
         }
+        return changed;
     }
 }
@@ -0,0 +1,22 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.services.exceptions.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * Representation returned by the product listing: SUMMARY (default, no description or
+ * categories) or FULL (ProductDTO with categories).
+ */
+public enum ProductView {
+    SUMMARY,
+    FULL;
+
+    public static ProductView of(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported view " + value);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.dvsuperior.dscatalog.services.events;
+
+import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+
+/**
+ * Published by CategoryService for every mutation, see ProductChangedEvent.
+ */
+public class CategoryChangedEvent {
+
+    private final ChangeType type;
+    private final Long id;
+    private final CategoryDTO category;
+
+    public CategoryChangedEvent(ChangeType type, Long id, CategoryDTO category) {
+        this.type = type;
+        this.id = id;
+        this.category = category;
+    }
+
+    public static CategoryChangedEvent inserted(CategoryDTO category) {
+        return new CategoryChangedEvent(ChangeType.INSERT, category.getId(), category);
+    }
+
+    public static CategoryChangedEvent updated(CategoryDTO category) {
+        return new CategoryChangedEvent(ChangeType.UPDATE, category.getId(), category);
+    }
+
+    public static CategoryChangedEvent deleted(Long id) {
+        return new CategoryChangedEvent(ChangeType.DELETE, id, null);
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * State after the change, null for deletes.
+     */
+    public CategoryDTO getCategory() {
+        return category;
+    }
+}
@@ -0,0 +1,7 @@
+package com.dvsuperior.dscatalog.services.events;
+
+public enum ChangeType {
+    INSERT,
+    UPDATE,
+    DELETE
+}
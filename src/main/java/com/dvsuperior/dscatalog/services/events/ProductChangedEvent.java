@@ -0,0 +1,103 @@
+package com.dvsuperior.dscatalog.services.events;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.entities.Category;
+import com.dvsuperior.dscatalog.entities.Product;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published by ProductService for every mutation. Listeners that keep derived state
+ * (search index, caches, ...) should use @TransactionalEventListener so they only
+ * see committed changes.
+ */
+public class ProductChangedEvent {
+
+    private final ChangeType type;
+    private final Long id;
+    private final ProductDTO product;
+    private final Set<Long> categoryIds;
+    private final Snapshot previous;
+
+    public ProductChangedEvent(ChangeType type, Long id, ProductDTO product, Set<Long> categoryIds, Snapshot previous) {
+        this.type = type;
+        this.id = id;
+        this.product = product;
+        this.categoryIds = categoryIds;
+        this.previous = previous;
+    }
+
+    public static ProductChangedEvent inserted(Product entity) {
+        return new ProductChangedEvent(ChangeType.INSERT, entity.getId(), new ProductDTO(entity), categoryIds(entity), null);
+    }
+
+    public static ProductChangedEvent updated(Product entity, Snapshot previous) {
+        return new ProductChangedEvent(ChangeType.UPDATE, entity.getId(), new ProductDTO(entity), categoryIds(entity), previous);
+    }
+
+    public static ProductChangedEvent deleted(Long id, Snapshot previous) {
+        return new ProductChangedEvent(ChangeType.DELETE, id, null, Collections.emptySet(), previous);
+    }
+
+    // ids only: works on uninitialized category references without loading them
+    private static Set<Long> categoryIds(Product entity) {
+        return entity.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * State after the change, null for deletes.
+     */
+    public ProductDTO getProduct() {
+        return product;
+    }
+
+    /**
+     * Categories after the change, empty for deletes.
+     */
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    /**
+     * Price and categories before the change; null for inserts, and for deletes of rows that
+     * were already gone.
+     */
+    public Snapshot getPrevious() {
+        return previous;
+    }
+
+    /**
+     * The fields of a product that derived aggregates depend on, taken before it is changed.
+     */
+    public static final class Snapshot {
+        private final Double price;
+        private final Set<Long> categoryIds;
+
+        public Snapshot(Double price, Set<Long> categoryIds) {
+            this.price = price;
+            this.categoryIds = categoryIds;
+        }
+
+        public static Snapshot of(Product entity) {
+            return new Snapshot(entity.getPrice(), categoryIds(entity));
+        }
+
+        public Double getPrice() {
+            return price;
+        }
+
+        public Set<Long> getCategoryIds() {
+            return categoryIds;
+        }
+    }
+}
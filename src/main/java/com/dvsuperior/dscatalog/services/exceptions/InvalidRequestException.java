@@ -0,0 +1,8 @@
+package com.dvsuperior.dscatalog.services.exceptions;
+
+public class InvalidRequestException extends RuntimeException{
+
+    public InvalidRequestException(String msg){
+        super(msg);
+    }
+}
@@ -0,0 +1,84 @@
+package com.dvsuperior.dscatalog.seed;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Extra categories and products written straight through JDBC on top of import.sql. Shared by the
+ * benchmark and loadtest profiles, which both add src/seed/java to their test sources, so their
+ * numbers are taken against catalogs of the same shape.
+ */
+public class CatalogSeed {
+
+    private static final int INSERT_BATCH = 1000;
+    private static final int DATE_SPREAD_SECONDS = 3 * 365 * 24 * 3600;
+    private static final String DESCRIPTION = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod "
+            + "tempor incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation "
+            + "ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+
+    private final List<Long> categoryIds;
+    private final long minProductId;
+    private final long maxProductId;
+
+    private CatalogSeed(List<Long> categoryIds, long minProductId, long maxProductId) {
+        this.categoryIds = categoryIds;
+        this.minProductId = minProductId;
+        this.maxProductId = maxProductId;
+    }
+
+    public static CatalogSeed seed(JdbcTemplate jdbc, int productCount, int categoryCount, long seed) {
+        List<Object[]> categories = new ArrayList<>(categoryCount);
+        for (int i = 1; i <= categoryCount; i++) {
+            categories.add(new Object[]{"Category " + i, Timestamp.from(Instant.now())});
+        }
+        jdbc.batchUpdate("INSERT INTO tb_category (name, created_at) VALUES (?, ?)", categories);
+        List<Long> categoryIds = jdbc.queryForList("SELECT id FROM tb_category", Long.class);
+        Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_product", Long.class);
+        SplittableRandom random = new SplittableRandom(seed);
+        Instant firstDate = Instant.parse("2020-07-14T10:00:00Z");
+
+        List<Object[]> products = new ArrayList<>(INSERT_BATCH);
+        List<Object[]> links = new ArrayList<>(INSERT_BATCH);
+        for (long id = maxId + 1; id <= maxId + productCount; id++) {
+            double price = 10.0 + random.nextInt(500_000) / 100.0;
+            // spread over ~3 years so date filters and date ordering are selective
+            Timestamp date = Timestamp.from(firstDate.plusSeconds(random.nextInt(DATE_SPREAD_SECONDS)));
+            products.add(new Object[]{id, "Product " + id, price, date, DESCRIPTION, "https://img.com/" + id + ".jpg"});
+            links.add(new Object[]{id, categoryIds.get(random.nextInt(categoryIds.size()))});
+            if (products.size() == INSERT_BATCH) {
+                flush(jdbc, products, links);
+            }
+        }
+        flush(jdbc, products, links);
+
+        long minProductId = jdbc.queryForObject("SELECT MIN(id) FROM tb_product", Long.class);
+        long maxProductId = jdbc.queryForObject("SELECT MAX(id) FROM tb_product", Long.class);
+        // rows were inserted with explicit ids, move the pooled-lo sequence past them
+        jdbc.execute("ALTER SEQUENCE tb_product_seq RESTART WITH " + (maxProductId + 1));
+        return new CatalogSeed(List.copyOf(categoryIds), minProductId, maxProductId);
+    }
+
+    private static void flush(JdbcTemplate jdbc, List<Object[]> products, List<Object[]> links) {
+        jdbc.batchUpdate("INSERT INTO tb_product (id, name, price, date, description, img_url) VALUES (?, ?, ?, ?, ?, ?)", products);
+        jdbc.batchUpdate("INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)", links);
+        products.clear();
+        links.clear();
+    }
+
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public long getMinProductId() {
+        return minProductId;
+    }
+
+    public long getMaxProductId() {
+        return maxProductId;
+    }
+}
@@ -0,0 +1,129 @@
+package com.dvsuperior.dscatalog.config;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.factories.Factory;
+import com.dvsuperior.dscatalog.services.ChangeFeedService;
+import com.dvsuperior.dscatalog.services.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * The whole application on a primary and one replica, two H2 instances: the replica starts as a
+ * copy of the primary, then one row is changed on it only, so a read shows where it was routed.
+ * Goes through JpaTransactionManager and the LazyConnectionDataSourceProxy like production does.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + TestReadWriteRoutingContext.PRIMARY_URL,
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "dscatalog.datasource.replicas[0].url=" + TestReadWriteRoutingContext.REPLICA_URL,
+        "dscatalog.datasource.replicas[0].username=sa",
+        "dscatalog.datasource.replicas[0].hikari.maximum-pool-size=2"
+})
+public class TestReadWriteRoutingContext {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:context_primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:context_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = replica();
+        ReadYourWrites.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void primaryPoolShouldBindSpringDatasourceHikariProperties() {
+        Assertions.assertEquals(3, primaryDataSource.getMaximumPoolSize());
+        Assertions.assertEquals("primary", primaryDataSource.getPoolName());
+    }
+
+    @Test
+    void readOnlyServiceReadShouldGoToReplica() {
+        String name = primary.queryForObject("SELECT name FROM tb_product WHERE id = 1", String.class);
+        replica.update("UPDATE tb_product SET name = 'Replica copy' WHERE id = 1");
+        try {
+            ProductDTO first = productService.findAllPaged(PageRequest.of(0, 1, Sort.by("id"))).getContent().get(0);
+
+            Assertions.assertEquals("Replica copy", first.getName());
+        } finally {
+            replica.update("UPDATE tb_product SET name = ? WHERE id = 1", name);
+        }
+    }
+
+    @Test
+    void writesShouldGoToPrimaryAndFollowingReadsStayThereDuringTheWindow() {
+        ProductDTO dto = Factory.createProductDTO();
+        dto.setId(null);
+        Long id = productService.insertProduct(dto).getId();
+        try {
+            Assertions.assertEquals(1, count(primary, id));
+            Assertions.assertEquals(0, count(replica, id));
+
+            PageRequest newest = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"));
+            Assertions.assertTrue(ReadYourWrites.isActive());
+            Assertions.assertEquals(id, productService.findAllPaged(newest).getContent().get(0).getId());
+
+            ReadYourWrites.clear();
+            Assertions.assertNotEquals(id, productService.findAllPaged(newest).getContent().get(0).getId());
+        } finally {
+            productService.deleteProduct(id);
+        }
+    }
+
+    @Test
+    void subscribeShouldNotOpenReadYourWritesWindow() {
+        changeFeedService.subscribe(0L).complete();
+
+        Assertions.assertFalse(ReadYourWrites.isActive());
+    }
+
+    private static int count(JdbcTemplate jdbcTemplate, Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product WHERE id = ?", Integer.class, id);
+    }
+
+    private static JdbcTemplate replica() {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    }
+
+    @TestConfiguration
+    static class ReplicaCopy {
+
+        // Hibernate creates the schema on the primary only; the copy has to exist before the
+        // ApplicationReadyEvent listeners run their read-only rebuilds against the replica
+        @EventListener(ContextRefreshedEvent.class)
+        public void copyPrimaryToReplica(ContextRefreshedEvent event) {
+            JdbcTemplate primary = new JdbcTemplate(event.getApplicationContext().getBean(HikariDataSource.class));
+            JdbcTemplate replica = replica();
+            primary.queryForList("SCRIPT", String.class).forEach(replica::execute);
+        }
+    }
+}
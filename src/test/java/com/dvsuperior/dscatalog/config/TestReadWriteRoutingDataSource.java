@@ -0,0 +1,149 @@
+package com.dvsuperior.dscatalog.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Two H2 instances stand in for the primary and a replica; each holds a row naming itself, so a
+ * query shows where it was routed.
+ */
+public class TestReadWriteRoutingDataSource {
+
+    private DataSource primary;
+    private DataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("routing_primary");
+        replica = database("routing_replica");
+        use(new ReadWriteRoutingDataSource(primary, List.of(replica), 60_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        new JdbcTemplate(primary).execute("DROP TABLE node");
+        new JdbcTemplate(replica).execute("DROP TABLE node");
+    }
+
+    @Test
+    void readOnlyTransactionsShouldGoToReplicaAndOthersToPrimary() {
+        Assertions.assertEquals("routing_replica", readOnly.execute(status -> node()));
+        Assertions.assertEquals("routing_primary", readWrite.execute(status -> node()));
+        // no transaction at all, e.g. schema setup at startup
+        Assertions.assertEquals("routing_primary", node());
+    }
+
+    @Test
+    void readsShouldStayOnPrimaryAfterCommittedWrite() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+        Assertions.assertTrue(ReadYourWrites.isActive());
+        Assertions.assertEquals("routing_primary", readOnly.execute(status -> node()));
+
+        ReadYourWrites.clear();
+        Assertions.assertEquals("routing_replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void readsInsideWindowShouldNotExtendIt() throws Exception {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+        long until = ReadYourWrites.getUntil();
+        Thread.sleep(20);
+
+        Assertions.assertEquals("routing_primary", readOnly.execute(status -> node()));
+
+        Assertions.assertEquals(until, ReadYourWrites.getUntil());
+    }
+
+    @Test
+    void onPrimaryShouldRouteReadToPrimaryWithoutOpeningWindow() {
+        Assertions.assertEquals("routing_primary", ReadYourWrites.onPrimary(() -> readOnly.execute(status -> node())));
+
+        Assertions.assertFalse(ReadYourWrites.isActive());
+        Assertions.assertEquals("routing_replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void readsShouldNotStayOnPrimaryAfterRolledBackWrite() {
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertEquals("routing_replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void readsShouldFallBackToPrimaryWhileReplicaIsDownAndReturnWhenItRecovers() {
+        SwitchableDataSource switchable = new SwitchableDataSource(replica);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(switchable), 60_000);
+        use(routing);
+
+        switchable.down = true;
+        Assertions.assertEquals("routing_primary", readOnly.execute(status -> node()));
+        Assertions.assertEquals(0, routing.healthyReplicas());
+
+        // marked down: not tried again until a health check sees it answer
+        switchable.down = false;
+        Assertions.assertEquals("routing_primary", readOnly.execute(status -> node()));
+
+        routing.checkReplicas();
+        Assertions.assertEquals(1, routing.healthyReplicas());
+        Assertions.assertEquals("routing_replica", readOnly.execute(status -> node()));
+    }
+
+    private void use(ReadWriteRoutingDataSource routing) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(50))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static class SwitchableDataSource extends DelegatingDataSource {
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
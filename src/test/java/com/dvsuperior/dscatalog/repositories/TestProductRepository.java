@@ -1,5 +1,6 @@
 package com.dvsuperior.dscatalog.repositories;
 
+import com.dvsuperior.dscatalog.DTO.ProductSummaryDTO;
 import com.dvsuperior.dscatalog.entities.Product;
 import com.dvsuperior.dscatalog.factories.Factory;
 import org.junit.jupiter.api.Assertions;
@@ -8,7 +9,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @DataJpaTest
@@ -76,4 +82,40 @@ public class TestProductRepository {
 
 
   }
+
+    @Test
+    public void findSummariesShouldApplyCategoryAndPriceRange() {
+        ProductFilter filter = new ProductFilter(3L, 1300.0, 2000.0, null, null);
+
+        Page<ProductSummaryDTO> result = repository.findSummaries(filter,
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "price")));
+
+        Assertions.assertEquals(13, result.getTotalElements());
+        Assertions.assertEquals(5, result.getContent().size());
+        Assertions.assertEquals(1950.0, result.getContent().get(0).getPrice());
+        Assertions.assertTrue(result.getContent().stream().allMatch(x -> x.getPrice() >= 1300.0 && x.getPrice() <= 2000.0));
+    }
+
+    @Test
+    public void findSummariesShouldApplyDateRange() {
+        ProductFilter filter = new ProductFilter(null, null, null, null, Instant.parse("2020-07-13T23:59:59Z"));
+
+        Page<ProductSummaryDTO> result = repository.findSummaries(filter, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(existingId, result.getContent().get(0).getId());
+    }
+
+    @Test
+    public void findSliceShouldReportNextPageWithoutCounting() {
+        ProductFilter filter = new ProductFilter(2L, null, null, null, null);
+
+        Slice<Product> first = repository.findSlice(filter, PageRequest.of(0, 1, Sort.by("id")));
+        Slice<Product> second = repository.findSlice(filter, PageRequest.of(1, 1, Sort.by("id")));
+
+        Assertions.assertTrue(first.hasNext());
+        Assertions.assertEquals(existingId, first.getContent().get(0).getId());
+        Assertions.assertFalse(second.hasNext());
+        Assertions.assertEquals(1, second.getContent().size());
+    }
 }
@@ -0,0 +1,204 @@
+package com.dvsuperior.dscatalog.resources;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.factories.Factory;
+import com.dvsuperior.dscatalog.repositories.CatalogChangeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TestChangeResource {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogChangeRepository repository;
+
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        since = repository.findLastId();
+    }
+
+    @Test
+    void findChangesShouldReturnChangesAfterCursorInCommitOrder() throws Exception {
+        ProductDTO productDTO = Factory.createProductDTO();
+        productDTO.setId(null);
+        String created = mockMvc.perform(post("/products")
+                        .content(objectMapper.writeValueAsString(productDTO))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(patch("/products/{id}", id)
+                        .content("{\"price\": 900.0}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/products/{id}", id))
+                .andExpect(status().isNoContent());
+
+        String body = mockMvc.perform(get("/changes?since={since}", since))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(3))
+                .andExpect(jsonPath("$.changes[0].entityType").value("PRODUCT"))
+                .andExpect(jsonPath("$.changes[0].id").value(id))
+                .andExpect(jsonPath("$.changes[0].operation").value("INSERT"))
+                .andExpect(jsonPath("$.changes[1].operation").value("UPDATE"))
+                .andExpect(jsonPath("$.changes[2].operation").value("DELETE"))
+                // the row is gone, so none of the entries carries its state any more
+                .andExpect(jsonPath("$.changes[2].product").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode feed = objectMapper.readTree(body);
+        long next = feed.get("next").asLong();
+        Assertions.assertEquals(feed.get("changes").get(2).get("cursor").asLong(), next);
+
+        // nothing new: the cursor stays put
+        mockMvc.perform(get("/changes?since={since}", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(0))
+                .andExpect(jsonPath("$.next").value(next));
+    }
+
+    @Test
+    void findChangesShouldPageWithSizeAndCarryCurrentState() throws Exception {
+        renameCategoryTwice();
+
+        mockMvc.perform(get("/changes?since={since}&size=1", since))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].entityType").value("CATEGORY"))
+                .andExpect(jsonPath("$.changes[0].operation").value("UPDATE"))
+                .andExpect(jsonPath("$.changes[0].category.name").value("Livros"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void streamShouldPushChangesAfterCommit() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/products/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        renameCategoryTwice();
+
+        String events = awaitEvents(stream, 2);
+        Assertions.assertTrue(events.contains("event:category"), events);
+        Assertions.assertTrue(events.contains("\"name\":\"Books\""), events);
+        Assertions.assertTrue(events.contains("id:" + repository.findLastId()), events);
+    }
+
+    @Test
+    void streamedProductShouldMatchItsFeedEntry() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/products/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String original = mockMvc.perform(get("/products/{id}", 2L))
+                .andReturn().getResponse().getContentAsString();
+        double price = objectMapper.readTree(original).get("price").asDouble();
+        mockMvc.perform(patch("/products/{id}", 2L)
+                        .content("{\"price\": " + (price + 1) + "}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/products/{id}", 2L)
+                        .content("{\"price\": " + price + "}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        String events = awaitEvents(stream, 2);
+        String data = events.substring(events.lastIndexOf("data:") + "data:".length()).split("\n", 2)[0];
+        JsonNode streamed = objectMapper.readTree(data);
+        String feed = mockMvc.perform(get("/changes?since={since}", since))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode entry = objectMapper.readTree(feed).get("changes").get(1);
+
+        Assertions.assertEquals(entry.get("cursor"), streamed.get("cursor"));
+        Assertions.assertFalse(streamed.get("product").get("categories").isEmpty(), data);
+        Assertions.assertEquals(withCategoryIds(entry.get("product")), withCategoryIds(streamed.get("product")));
+    }
+
+    // categories come from a Set, so their order is not part of the contract; and with several test
+    // contexts on one H2 database, a context's cached category can predate another context's reload
+    private static JsonNode withCategoryIds(JsonNode product) {
+        List<Long> ids = new ArrayList<>();
+        product.get("categories").forEach(x -> ids.add(x.get("id").asLong()));
+        Collections.sort(ids);
+        ObjectNode copy = product.deepCopy();
+        copy.putArray("categories").addAll(ids.stream().map(LongNode::valueOf).collect(Collectors.toList()));
+        return copy;
+    }
+
+    @Test
+    void streamShouldResumeFromLastEventId() throws Exception {
+        renameCategoryTwice();
+
+        MvcResult stream = mockMvc.perform(get("/products/stream").header("Last-Event-ID", since))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // both were committed before connecting and come from the log
+        String events = awaitEvents(stream, 2);
+        Assertions.assertEquals(2, events.split("event:category", -1).length - 1, events);
+        Assertions.assertTrue(events.contains("id:" + repository.findLastId()), events);
+    }
+
+    @Test
+    void findChangesShouldReturnBadRequestWhenSizeIsOutOfRange() throws Exception {
+        mockMvc.perform(get("/changes?size=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void renameCategoryTwice() throws Exception {
+        mockMvc.perform(patch("/categories/{id}", 1L)
+                        .content("{\"name\": \"Books\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/categories/{id}", 1L)
+                        .content("{\"name\": \"Livros\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    // events are written by the broadcaster's threads, not the test thread
+    private static String awaitEvents(MvcResult stream, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getResponse().getContentAsString();
+        while (content.split("event:", -1).length - 1 < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+}
@@ -0,0 +1,39 @@
+package com.dvsuperior.dscatalog.resources;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class TestMetricsEndpoint {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusShouldExposeRequestServiceAndPersistenceMetrics() throws Exception {
+        mockMvc.perform(get("/products?view=full")).andExpect(status().isOk());
+        mockMvc.perform(get("/products/{id}", 1000L)).andExpect(status().isNotFound());
+
+        String body = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(body.contains("http_server_requests_seconds_bucket"));
+        Assertions.assertTrue(body.contains("dscatalog_service_seconds_count{class=\"com.dvsuperior.dscatalog.services.ProductService\""));
+        Assertions.assertTrue(body.contains("dscatalog_http_queries_statements_count{method=\"GET\",uri=\"/products\",}"));
+        Assertions.assertTrue(body.contains("dscatalog_http_errors_total{error=\"Resource not found\""));
+        Assertions.assertTrue(body.contains("hibernate_statements_total"));
+        Assertions.assertTrue(body.contains("hikaricp_connections_acquire_seconds"));
+        Assertions.assertTrue(body.contains("hibernate_second_level_cache_requests_total{entityManagerFactory=\"entityManagerFactory\",region=\"com.dvsuperior.dscatalog.entities.Category\",result=\"hit\",}"));
+    }
+}
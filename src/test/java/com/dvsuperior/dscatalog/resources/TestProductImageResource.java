@@ -0,0 +1,136 @@
+package com.dvsuperior.dscatalog.resources;
+
+import com.dvsuperior.dscatalog.entities.Product;
+import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.DigestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TestProductImageResource {
+
+    @TempDir
+    static Path imagesDir;
+
+    @DynamicPropertySource
+    static void imageProperties(DynamicPropertyRegistry registry) {
+        registry.add("dscatalog.images.dir", () -> imagesDir.toString());
+        registry.add("dscatalog.images.max-bytes", () -> 4096);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Long productId;
+    private byte[] image;
+    private String hash;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Product product = new Product(null, "Camera", "", 300.0, "https://img.com/camera.png", Instant.now());
+        product.getCategories().add(categoryRepository.getReferenceById(1L));
+        productId = repository.save(product).getId();
+        image = new byte[1000];
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) i;
+        }
+        hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mockMvc.perform(delete("/products/{id}", productId));
+    }
+
+    @Test
+    void uploadImageShouldStoreFileUnderItsHashAndPointImgUrlAtIt() throws Exception {
+        mockMvc.perform(put("/products/{id}/image", productId).content(image).contentType("image/png"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imgUrl").value("/products/" + productId + "/image?v=" + hash));
+
+        Assertions.assertArrayEquals(image, Files.readAllBytes(imagesDir.resolve(hash)));
+
+        mockMvc.perform(get("/products/{id}/image?v={hash}", productId, hash))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "image/png"))
+                .andExpect(header().string("ETag", "\"" + hash + "\""))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().bytes(image));
+
+        mockMvc.perform(get("/products/{id}/image", productId).header("If-None-Match", "\"" + hash + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void findImageShouldServeSingleRange() throws Exception {
+        mockMvc.perform(put("/products/{id}/image", productId).content(image).contentType("image/png"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/products/{id}/image", productId).header("Range", "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 10-19/1000"))
+                .andExpect(header().longValue("Content-Length", 10))
+                .andExpect(content().bytes(Arrays.copyOfRange(image, 10, 20)));
+
+        mockMvc.perform(get("/products/{id}/image", productId).header("Range", "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(image, 995, 1000)));
+
+        mockMvc.perform(get("/products/{id}/image", productId).header("Range", "bytes=5000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */1000"));
+
+        // If-Range for another version: the whole file
+        mockMvc.perform(get("/products/{id}/image", productId).header("Range", "bytes=10-19")
+                        .header("If-Range", "\"" + DigestUtils.md5DigestAsHex(image) + "\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(image));
+    }
+
+    @Test
+    void uploadImageShouldRejectOversizedAndNonImageBodies() throws Exception {
+        mockMvc.perform(put("/products/{id}/image", productId).content(new byte[5000]).contentType("image/png"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/products/{id}/image", productId).content(image).contentType("text/plain"))
+                .andExpect(status().isBadRequest());
+
+        try (var files = Files.list(imagesDir)) {
+            Assertions.assertTrue(files.noneMatch(x -> x.getFileName().toString().endsWith(".tmp")));
+        }
+        mockMvc.perform(get("/products/{id}/image", productId))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,7 +1,11 @@
 package com.dvsuperior.dscatalog.resources;
 
 import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.DTO.ProductSummaryDTO;
+import com.dvsuperior.dscatalog.entities.Product;
 import com.dvsuperior.dscatalog.factories.Factory;
+import com.dvsuperior.dscatalog.services.ChangeFeedService;
+import com.dvsuperior.dscatalog.services.ProductPageCache;
 import com.dvsuperior.dscatalog.services.ProductService;
 import com.dvsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.dvsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
@@ -12,8 +16,10 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
@@ -23,10 +29,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ProductResource.class)
+@Import(ProductPageCache.class)
 public class TestProductResource {
 
     @Autowired
@@ -35,14 +44,21 @@ public class TestProductResource {
     @MockBean
     private ProductService service;
 
+    @MockBean
+    private ChangeFeedService changeFeedService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProductPageCache pageCache;
+
     private PageImpl<ProductDTO> page;
     private ProductDTO productDTO;
     private Long existingId;
     private Long noExistingId;
     private Long dependentId;
+    private Long concurrentlyUpdatedId;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -51,14 +67,24 @@ public class TestProductResource {
         existingId = 1L;
         noExistingId = 1000L;
         dependentId = 3L;
+        concurrentlyUpdatedId = 4L;
+        pageCache.invalidate();
 
         when(service.findAllPaged(any())).thenReturn(page);
+        when(service.findAllPaged(any(), any())).thenReturn(page);
+        when(service.findAllSummaries(any(), any())).thenReturn(new PageImpl<>(List.of(new ProductSummaryDTO(
+                productDTO.getId(), productDTO.getName(), productDTO.getPrice(), productDTO.getImgUrl(), productDTO.getDate()))));
 
         when(service.findById(existingId)).thenReturn(productDTO);
         when(service.findById(noExistingId)).thenThrow(ResourceNotFoundException.class);
 
+        when(service.findVersionTag(existingId)).thenReturn("\"1-0-0\"");
+        when(service.findVersionTag(noExistingId)).thenThrow(ResourceNotFoundException.class);
+
         when(service.updateProduct(eq(existingId), any())).thenReturn(productDTO);
         when(service.updateProduct(eq(noExistingId), any())).thenThrow(ResourceNotFoundException.class);
+        when(service.updateProduct(eq(concurrentlyUpdatedId), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, concurrentlyUpdatedId));
 
         when(service.insertProduct(any())).thenReturn(productDTO);
 
@@ -82,6 +108,18 @@ public class TestProductResource {
         result.andExpect(jsonPath("$.name").isNotEmpty());
     }
 
+    @Test
+    void updateProductShouldReturnConflictWhenProductWasUpdatedConcurrently() throws Exception {
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+
+        mockMvc.perform(put("/products/{id}", concurrentlyUpdatedId)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
     @Test
     void deleteProductDtoThrowsDataBaseExceptionWhenIdDoesIsDependent() throws Exception {
 
@@ -144,6 +182,23 @@ public class TestProductResource {
                 .andExpect(jsonPath("$.price").isNumber());
     }
 
+    @Test
+    void findByIdShouldReturnETagWhenIdExists() throws Exception {
+        mockMvc.perform(get("/products/{id}", existingId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-0-0\""));
+    }
+
+    @Test
+    void findByIdShouldReturnNotModifiedWithoutLoadingProductWhenETagMatches() throws Exception {
+        mockMvc.perform(get("/products/{id}", existingId)
+                        .header("If-None-Match", "\"1-0-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Mockito.verify(service, Mockito.never()).findById(existingId);
+    }
+
     @Test
     void findByIdShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
         mockMvc.perform(get("/products/{id}", noExistingId))
@@ -155,6 +210,18 @@ public class TestProductResource {
         mockMvc.perform(get("/products")).andExpect(status().isOk());
     }
 
+    @Test
+    void findAllShouldReturnSummariesByDefaultAndFullProductsOnRequest() throws Exception {
+        mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value(productDTO.getName()))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+
+        mockMvc.perform(get("/products?view=full"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].description").value(productDTO.getDescription()));
+    }
+
     /*
     ------------------------Outra forma de fazer as assertions----------------------------------
     @Test
@@ -0,0 +1,377 @@
+package com.dvsuperior.dscatalog.resources;
+
+import com.dvsuperior.dscatalog.entities.Category;
+import com.dvsuperior.dscatalog.entities.Product;
+import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import com.dvsuperior.dscatalog.services.ProductPageCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class TestProductResourceQueryCount {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductPageCache pageCache;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Statistics statistics;
+    private Long existingId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        existingId = repository.findAll(PageRequest.of(0, 1)).getContent().get(0).getId();
+        pageCache.invalidate();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllShouldReadSummaryColumnsWithoutLoadingEntities() throws Exception {
+        mockMvc.perform(get("/products?page=0&size=20")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").isNotEmpty())
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.content[0].categories").doesNotExist());
+
+        // page + count, nothing hydrated into the persistence context
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findAllShouldServeRepeatedUnfilteredPageFromPageCache() throws Exception {
+        String eTag = mockMvc.perform(get("/products?page=0&size=20"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        mockMvc.perform(get("/products?page=0&size=20").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("$.content.length()").value(20));
+        mockMvc.perform(get("/products?page=0&size=20").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllShouldServeGzipBytesWhenAccepted() throws Exception {
+        byte[] json = mockMvc.perform(get("/products?page=0&size=20"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] gzip = mockMvc.perform(get("/products?page=0&size=20").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            Assertions.assertArrayEquals(json, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void findAllShouldUseDistinctETagForGzipBody() throws Exception {
+        String eTag = mockMvc.perform(get("/products?page=0&size=20"))
+                .andReturn().getResponse().getHeader("ETag");
+        String gzipETag = mockMvc.perform(get("/products?page=0&size=20").header("Accept-Encoding", "gzip"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Assertions.assertEquals(eTag.substring(0, eTag.length() - 1) + "-gzip\"", gzipETag);
+        mockMvc.perform(get("/products?page=0&size=20").header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", gzipETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", gzipETag));
+        mockMvc.perform(get("/products?page=0&size=20").header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+        mockMvc.perform(get("/products?page=0&size=20").header("If-None-Match", gzipETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag));
+    }
+
+    @Test
+    void findAllShouldReloadPageAfterProductUpdate() throws Exception {
+        mockMvc.perform(get("/products?page=0&size=20")).andExpect(status().isOk());
+        String product = mockMvc.perform(get("/products/{id}", existingId))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(put("/products/{id}", existingId)
+                        .content(product)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/products?page=0&size=20")).andExpect(status().isOk());
+
+        // the update bumped the page cache generation, so page + count run again
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllWithFiltersShouldRunOneSelectAndOneCount() throws Exception {
+        mockMvc.perform(get("/products?categoryId=3&minPrice=1300&maxPrice=2000&from=2020-01-01T00:00:00Z&size=5&sort=date,desc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(13))
+                .andExpect(jsonPath("$.content.length()").value(5));
+
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllWithInvertedPriceRangeShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/products?minPrice=2000&maxPrice=1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findAllShouldUseConstantNumberOfStatementsWhenCategoriesAreIncluded() throws Exception {
+        mockMvc.perform(get("/products?page=0&size=20&view=full")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].categories").isNotEmpty());
+
+        // page + count + one batched category fetch, independent of the page size
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllWithoutCountShouldSkipCountStatement() throws Exception {
+        mockMvc.perform(get("/products?page=0&size=20&count=false&view=full")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.approximateTotal").doesNotExist());
+
+        // page (size + 1 rows) + one batched category fetch, no COUNT(*)
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        statistics.clear();
+
+        mockMvc.perform(get("/products?page=0&size=20&count=false")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllWithApproximateCountShouldReturnCachedTotal() throws Exception {
+        long total = repository.count();
+        mockMvc.perform(get("/products?page=0&size=20&count=approx")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.approximateTotal").value(total));
+        statistics.clear();
+
+        mockMvc.perform(get("/products?page=0&size=20&count=approx")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // only the summary slice, the total comes from CatalogCounts
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllWithUnknownCountModeShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/products?count=maybe"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findAllWithUnknownViewShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/products?view=compact"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findAllByIdsShouldKeepRequestedOrderAndReportMissingIds() throws Exception {
+        mockMvc.perform(get("/products?ids=3,1,999999,2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3L))
+                .andExpect(jsonPath("$.content[1].id").value(1L))
+                .andExpect(jsonPath("$.content[2].id").value(2L))
+                .andExpect(jsonPath("$.content[0].categories").isNotEmpty())
+                .andExpect(jsonPath("$.missing[0]").value(999999L));
+
+        // products + one batched category fetch
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdShouldLoadOnlyProductRowWhenCategoriesAreCached() throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        mockMvc.perform(get("/products/{id}", existingId));
+        statistics.clear();
+
+        mockMvc.perform(get("/products/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories").isNotEmpty());
+
+        // version stamp for the ETag + product row; categories come from the second-level cache
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void findByIdShouldOnlyReadVersionStampWhenNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/products/{id}", existingId))
+                .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        mockMvc.perform(get("/products/{id}", existingId)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void deleteProductsShouldUseConstantNumberOfStatements() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product(null, "Obsolete " + i, "", 10.0, "", Instant.now());
+            product.getCategories().add(categoryRepository.getReferenceById(1L));
+            ids.add(repository.save(product).getId());
+        }
+        statistics.clear();
+
+        mockMvc.perform(delete("/products?ids={a},{b},{c},{missing}", ids.get(0), ids.get(1), ids.get(2), 999999L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted.length()").value(3))
+                .andExpect(jsonPath("$.missing[0]").value(999999L))
+                .andExpect(jsonPath("$.blocked").isEmpty());
+
+        // existing ids + one DELETE for the links + one for the products + one batched INSERT of the
+        // change-feed tombstones, plus a sequence call whenever the id pool runs out
+        long statements = statistics.getPrepareStatementCount();
+        Assertions.assertTrue(statements == 4 || statements == 5, "statements: " + statements);
+        Assertions.assertTrue(repository.findExistingIds(ids).isEmpty());
+    }
+
+    @Test
+    void deleteCategoriesShouldReportBlockedAndMissingIds() throws Exception {
+        Category category = new Category();
+        category.setName("Obsolete");
+        Long unusedId = categoryRepository.save(category).getId();
+
+        mockMvc.perform(delete("/categories?ids={unused},{used},{missing}", unusedId, 1L, 999999L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted[0]").value(unusedId))
+                .andExpect(jsonPath("$.blocked[0]").value(1L))
+                .andExpect(jsonPath("$.missing[0]").value(999999L));
+
+        Assertions.assertFalse(categoryRepository.existsById(unusedId));
+        Assertions.assertTrue(categoryRepository.existsById(1L));
+    }
+
+    @Test
+    void deleteProductsWithoutIdsShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(delete("/products?ids="))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void patchProductShouldOnlyWriteSuppliedFieldsAndDiffCategoryLinks() throws Exception {
+        Product product = new Product(null, "Patched", "Long description", 10.0, "", Instant.now());
+        product.getCategories().add(categoryRepository.getReferenceById(1L));
+        product.getCategories().add(categoryRepository.getReferenceById(2L));
+        Long id = repository.save(product).getId();
+        statistics.clear();
+
+        mockMvc.perform(patch("/products/{id}", id)
+                        .content("{\"price\": 12.5, \"categories\": [{\"id\": 2}, {\"id\": 3}]}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(12.5))
+                .andExpect(jsonPath("$.name").value("Patched"))
+                .andExpect(jsonPath("$.description").value("Long description"));
+
+        // one link deleted and one inserted, the other link row is left alone
+        Assertions.assertEquals(0, statistics.getCollectionRecreateCount());
+        Assertions.assertEquals(0, statistics.getCollectionRemoveCount());
+        Assertions.assertEquals(1, statistics.getCollectionUpdateCount());
+        Assertions.assertEquals(1, statistics.getEntityUpdateCount());
+        mockMvc.perform(delete("/products/{id}", id));
+    }
+
+    @Test
+    void patchProductWithUnchangedValuesShouldNotWrite() throws Exception {
+        mockMvc.perform(get("/products/{id}", existingId)).andExpect(status().isOk());
+        String name = repository.findById(existingId).get().getName();
+        statistics.clear();
+
+        mockMvc.perform(patch("/products/{id}", existingId)
+                        .content("{\"name\": \"" + name + "\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void patchCategoryShouldKeepNameWhenNotSupplied() throws Exception {
+        Category category = new Category();
+        category.setName("Before");
+        Long id = categoryRepository.save(category).getId();
+
+        mockMvc.perform(patch("/categories/{id}", id)
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Before"));
+        mockMvc.perform(patch("/categories/{id}", id)
+                        .content("{\"name\": \"After\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("After"));
+
+        Assertions.assertEquals(1, categoryRepository.findVersionById(id).get());
+        categoryRepository.deleteById(id);
+    }
+}
@@ -2,7 +2,9 @@ package com.dvsuperior.dscatalog.resources;
 
 import com.dvsuperior.dscatalog.DTO.ProductDTO;
 import com.dvsuperior.dscatalog.factories.Factory;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,8 +15,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -35,6 +41,9 @@ public class integrationProductResource {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProductRepository repository;
+
 
     @BeforeEach
     void setUp() throws Exception {
@@ -61,6 +70,91 @@ public class integrationProductResource {
         result.andExpect(jsonPath("$.content[2].name").value("PC Gamer Alfa"));
     }
 
+    @Test
+    void searchShouldReturnRankedPageWhenQueryMatchesName() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products/search?q=macbook&size=5")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(1));
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+    }
+
+    @Test
+    void exportShouldStreamOneJsonLinePerProduct() throws Exception {
+        long total = repository.count();
+
+        String body = mockMvc.perform(get("/products/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(total, lines.length);
+        Assertions.assertNotNull(objectMapper.readValue(lines[0], ProductDTO.class).getName());
+    }
+
+    @Test
+    void importShouldReadCsvInDeclaredCharsetWhenContentTypeCaseDiffers() throws Exception {
+        byte[] body = "name,price\nCafé Gourmet,12.5\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        mockMvc.perform(post("/products/import")
+                        .contentType("Text/CSV; charset=ISO-8859-1")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        Assertions.assertTrue(repository.findAll().stream().anyMatch(x -> "Café Gourmet".equals(x.getName())));
+    }
+
+    @Test
+    void exportShouldStreamCsvWithHeaderWhenFormatIsCsv() throws Exception {
+        long total = repository.count();
+
+        String body = mockMvc.perform(get("/products/export?format=csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals("id,name,description,price,imgUrl,date,categories", lines[0]);
+        Assertions.assertEquals(total + 1, lines.length);
+    }
+
+    @Test
+    void findByIdShouldChangeETagWhenProductIsUpdated() throws Exception {
+        String eTag = mockMvc.perform(get("/products/{id}", 2L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/products/{id}", 2L).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+        mockMvc.perform(put("/products/{id}", 2L)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/products/{id}", 2L).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(productDTO.getName()));
+    }
+
+    @Test
+    void findAllShouldReturnNotModifiedWhenPageIsUnchanged() throws Exception {
+        String eTag = mockMvc.perform(get("/products?page=0&size=5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        Assertions.assertNotNull(eTag);
+        mockMvc.perform(get("/products?page=0&size=5").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void updateProductShouldUpdateProductDtoWhenIdExists() throws Exception {
         String jsonBody = objectMapper.writeValueAsString(productDTO);
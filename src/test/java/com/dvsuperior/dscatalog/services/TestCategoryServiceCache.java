@@ -0,0 +1,117 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.entities.Category;
+import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+public class TestCategoryServiceCache {
+
+    @Autowired
+    private CategoryService service;
+
+    @SpyBean
+    private CategoryRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long existingId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        existingId = 1L;
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        Mockito.clearInvocations(repository);
+    }
+
+    @Test
+    void findByIdShouldHitRepositoryOnceWhenCalledRepeatedly() {
+        service.findById(existingId);
+        service.findById(existingId);
+        CategoryDTO result = service.findById(existingId);
+
+        Assertions.assertEquals("Livros", result.getName());
+        Mockito.verify(repository, Mockito.times(1)).findById(existingId);
+        @SuppressWarnings("unchecked")
+        Cache<Object, Object> nativeCache = (Cache<Object, Object>) cacheManager.getCache(CategoryService.CACHE).getNativeCache();
+        Assertions.assertTrue(nativeCache.stats().hitCount() >= 2);
+    }
+
+    @Test
+    void findAllPagedShouldHitRepositoryOnceWhenCalledRepeatedly() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        service.findAllPaged(pageRequest);
+        service.findAllPaged(PageRequest.of(0, 10));
+
+        Mockito.verify(repository, Mockito.times(1)).findAll(pageRequest);
+    }
+
+    @Test
+    void updateCategoryShouldInvalidateCachedEntry() {
+        service.findById(existingId);
+        service.updateCategory(existingId, new CategoryDTO(existingId, "Livros"));
+        service.findById(existingId);
+
+        Mockito.verify(repository, Mockito.times(2)).findById(existingId);
+    }
+
+    @Test
+    void insertCategoryShouldInvalidateCachedPages() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        long before = service.findAllPaged(pageRequest).getTotalElements();
+
+        CategoryDTO dto = service.insertCategory(new CategoryDTO(0L, "Games"));
+        long after = service.findAllPaged(pageRequest).getTotalElements();
+        service.deleteCategory(dto.getId());
+
+        Assertions.assertEquals(before + 1, after);
+    }
+
+    @Test
+    void updateCategoryShouldEvictCachedEntryOnlyAfterCommit() {
+        service.findById(existingId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            service.updateCategory(existingId, new CategoryDTO(existingId, "Livros"));
+            Assertions.assertNotNull(cacheManager.getCache(CategoryService.CACHE).get(existingId));
+        });
+
+        Assertions.assertNull(cacheManager.getCache(CategoryService.CACHE).get(existingId));
+    }
+
+    @Test
+    void findByIdShouldNotReturnCachedInstanceToCallers() {
+        service.findById(existingId).setName("Changed by caller");
+
+        Assertions.assertEquals("Livros", service.findById(existingId).getName());
+    }
+
+    @Test
+    void findAllPagedShouldNotReturnCachedInstancesToCallers() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<CategoryDTO> first = service.findAllPaged(pageRequest);
+        String name = first.getContent().get(0).getName();
+        first.getContent().get(0).setName("Changed by caller");
+
+        Page<CategoryDTO> second = service.findAllPaged(pageRequest);
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(name, second.getContent().get(0).getName());
+    }
+}
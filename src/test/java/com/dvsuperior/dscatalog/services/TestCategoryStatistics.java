@@ -0,0 +1,96 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.DTO.CategoryStatsDTO;
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.factories.Factory;
+import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+public class TestCategoryStatistics {
+
+    @Autowired
+    private CategoryStatistics statistics;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        statistics.rebuild();
+        categoryId = 1L;
+    }
+
+    @Test
+    void findAllShouldMatchDatabaseAggregates() {
+        Assertions.assertTrue(statistics.matches(categoryRepository.findAllIds(), productRepository.aggregateCategoryStats()));
+        Assertions.assertEquals(categoryRepository.count(), statistics.findAll().size());
+    }
+
+    @Test
+    void productChangesShouldUpdateStatisticsIncrementally() {
+        CategoryStatsDTO before = stats(categoryId);
+
+        ProductDTO dto = Factory.createProductDTO();
+        dto.setId(null);
+        dto.setPrice(99_999.0);
+        ProductDTO inserted = productService.insertProduct(dto);
+        try {
+            CategoryStatsDTO afterInsert = stats(categoryId);
+            Assertions.assertEquals(before.getProductCount() + 1, afterInsert.getProductCount());
+            Assertions.assertEquals(99_999.0, afterInsert.getMaxPrice());
+
+            dto.setPrice(0.5);
+            productService.updateProduct(inserted.getId(), dto);
+            CategoryStatsDTO afterUpdate = stats(categoryId);
+            Assertions.assertEquals(before.getProductCount() + 1, afterUpdate.getProductCount());
+            Assertions.assertEquals(0.5, afterUpdate.getMinPrice());
+            Assertions.assertEquals(before.getMaxPrice(), afterUpdate.getMaxPrice());
+            Assertions.assertTrue(statistics.matches(categoryRepository.findAllIds(), productRepository.aggregateCategoryStats()));
+        } finally {
+            productService.deleteProduct(inserted.getId());
+        }
+
+        CategoryStatsDTO afterDelete = stats(categoryId);
+        Assertions.assertEquals(before.getProductCount(), afterDelete.getProductCount());
+        Assertions.assertEquals(before.getMinPrice(), afterDelete.getMinPrice());
+        Assertions.assertEquals(before.getAvgPrice(), afterDelete.getAvgPrice(), 1e-9);
+    }
+
+    @Test
+    void categoryInsertAndDeleteShouldAddAndRemoveTheirEntry() {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setName("Garden");
+        CategoryDTO inserted = categoryService.insertCategory(dto);
+
+        Assertions.assertEquals(0, stats(inserted.getId()).getProductCount());
+        Assertions.assertTrue(statistics.matches(categoryRepository.findAllIds(), productRepository.aggregateCategoryStats()));
+
+        categoryService.deleteCategory(inserted.getId());
+        Assertions.assertTrue(statistics.findAll().stream().noneMatch(x -> x.getCategoryId() == inserted.getId()));
+    }
+
+    private CategoryStatsDTO stats(long id) {
+        return statistics.findAll().stream()
+                .filter(x -> x.getCategoryId() == id)
+                .findFirst()
+                .orElseThrow();
+    }
+}
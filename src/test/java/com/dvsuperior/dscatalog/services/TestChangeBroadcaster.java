@@ -0,0 +1,85 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One sender thread and a client that stops reading: its write blocks until the test lets it go.
+ */
+public class TestChangeBroadcaster {
+
+    private final LinkedList<RecordingEmitter> emitters = new LinkedList<>();
+
+    private final ChangeBroadcaster broadcaster = new ChangeBroadcaster(new ObjectMapper(), 60_000, 16, 1, 50) {
+        @Override
+        SseEmitter newEmitter() {
+            return emitters.removeFirst();
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void evictStuckShouldDropSubscriberWhoseWriteOutlastsTheTimeoutAndFreeTheSender() throws Exception {
+        RecordingEmitter stuck = new RecordingEmitter(true);
+        RecordingEmitter healthy = new RecordingEmitter(false);
+        emitters.add(stuck);
+        emitters.add(healthy);
+        broadcaster.subscribe().start(List.of(), 0L);
+        broadcaster.subscribe().start(List.of(), 0L);
+
+        broadcaster.heartbeat();
+        Assertions.assertTrue(stuck.entered.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        broadcaster.evictStuck();
+
+        Assertions.assertEquals(1, broadcaster.size());
+        broadcaster.heartbeat();
+        stuck.release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (healthy.sent.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2, healthy.sent.size());
+        Assertions.assertEquals(1, stuck.sent.size());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final boolean block;
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<SseEventBuilder> sent = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingEmitter(boolean block) {
+            this.block = block;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (block) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            sent.add(builder);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.BatchItemResultDTO;
+import com.dvsuperior.dscatalog.DTO.CategoryDTO;
+import com.dvsuperior.dscatalog.DTO.ImportResultDTO;
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.entities.Product;
+import com.dvsuperior.dscatalog.factories.Factory;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Not @Transactional: every chunk has to commit on its own, as it does in production. Products
+ * the tests create are deleted afterwards, and the ones they change are put back.
+ */
+@SpringBootTest
+public class TestProductBulkService {
+
+    @Autowired
+    private ProductBulkService service;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${dscatalog.batch.chunk-size}")
+    private int chunkSize;
+
+    private Long nonExistingCategoryId;
+    private Long nonExistingId;
+    private Set<Long> existingIds;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nonExistingCategoryId = 1000L;
+        nonExistingId = 1000L;
+        existingIds = ids();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Set<Long> created = ids();
+        created.removeAll(existingIds);
+        if (!created.isEmpty()) {
+            productService.deleteProducts(created);
+        }
+    }
+
+    @Test
+    void insertAllShouldPersistEveryItemAndReturnIds() {
+        long before = repository.count();
+        List<ProductDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            ProductDTO dto = Factory.createProductDTO();
+            dto.setId(null);
+            dto.setName("Feed " + i);
+            dtos.add(dto);
+        }
+
+        List<BatchItemResultDTO> results = service.insertAll(dtos);
+
+        Assertions.assertEquals(120, results.size());
+        Assertions.assertTrue(results.stream().allMatch(x -> BatchItemResultDTO.CREATED.equals(x.getStatus())));
+        Assertions.assertTrue(results.stream().allMatch(x -> x.getId() != null));
+        Assertions.assertEquals(before + 120, repository.count());
+        Assertions.assertEquals("Feed 7", repository.findById(results.get(7).getId()).get().getName());
+    }
+
+    @Test
+    void insertAllShouldReportFailedItemWhenCategoryDoesNotExist() {
+        ProductDTO valid = Factory.createProductDTO();
+        valid.setId(null);
+        ProductDTO invalid = Factory.createProductDTO();
+        invalid.setId(null);
+        invalid.getCategories().add(new CategoryDTO(nonExistingCategoryId, "Nope"));
+
+        List<BatchItemResultDTO> results = service.insertAll(List.of(valid, invalid));
+
+        Assertions.assertEquals(BatchItemResultDTO.CREATED, results.get(0).getStatus());
+        Assertions.assertEquals(BatchItemResultDTO.FAILED, results.get(1).getStatus());
+        Assertions.assertEquals(1, results.get(1).getIndex());
+    }
+
+    @Test
+    void insertAllAndUpdateAllShouldReportFailedItemWhenCategoriesAreNull() {
+        ProductDTO valid = Factory.createProductDTO();
+        valid.setId(null);
+        ProductDTO invalid = Factory.createProductDTO();
+        invalid.setId(null);
+        invalid.setCategories(null);
+        ProductDTO invalidUpdate = Factory.createProductDTO();
+        invalidUpdate.setId(2L);
+        invalidUpdate.setCategories(null);
+
+        List<BatchItemResultDTO> inserted = service.insertAll(List.of(valid, invalid));
+        List<BatchItemResultDTO> updated = service.updateAll(List.of(invalidUpdate));
+
+        Assertions.assertEquals(BatchItemResultDTO.CREATED, inserted.get(0).getStatus());
+        Assertions.assertEquals(BatchItemResultDTO.FAILED, inserted.get(1).getStatus());
+        Assertions.assertEquals(BatchItemResultDTO.FAILED, updated.get(0).getStatus());
+        Assertions.assertEquals(2L, updated.get(0).getId());
+    }
+
+    @Test
+    void insertAllAndUpdateAllShouldReportFailedItemWhenItemIsNull() {
+        ProductDTO valid = Factory.createProductDTO();
+        valid.setId(null);
+
+        List<BatchItemResultDTO> inserted = service.insertAll(Arrays.asList(null, valid));
+        List<BatchItemResultDTO> updated = service.updateAll(Arrays.asList((ProductDTO) null));
+
+        Assertions.assertEquals(BatchItemResultDTO.FAILED, inserted.get(0).getStatus());
+        Assertions.assertEquals("Item must not be null", inserted.get(0).getMessage());
+        Assertions.assertEquals(BatchItemResultDTO.CREATED, inserted.get(1).getStatus());
+        Assertions.assertEquals(BatchItemResultDTO.FAILED, updated.get(0).getStatus());
+    }
+
+    @Test
+    void insertAllShouldKeepEarlierChunksWhenLaterChunkFails() {
+        long before = repository.count();
+        List<ProductDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 2 * chunkSize + 10; i++) {
+            ProductDTO dto = Factory.createProductDTO();
+            dto.setId(null);
+            dto.setName("Feed " + i);
+            dtos.add(dto);
+        }
+        // longer than the name column: only the database rejects it, when the third chunk is flushed
+        dtos.get(2 * chunkSize + 5).setName("x".repeat(300));
+
+        List<BatchItemResultDTO> results = service.insertAll(dtos);
+
+        Assertions.assertTrue(results.subList(0, 2 * chunkSize).stream()
+                .allMatch(x -> BatchItemResultDTO.CREATED.equals(x.getStatus())));
+        Assertions.assertTrue(results.subList(2 * chunkSize, dtos.size()).stream()
+                .allMatch(x -> BatchItemResultDTO.FAILED.equals(x.getStatus())));
+        Assertions.assertEquals(before + 2 * chunkSize, repository.count());
+        Assertions.assertTrue(repository.existsById(results.get(0).getId()));
+        Assertions.assertTrue(repository.existsById(results.get(2 * chunkSize - 1).getId()));
+    }
+
+    @Test
+    void updateAllShouldApplyChangesAndReportUnknownIdsAndCategories() {
+        ProductDTO original = productService.findById(1L);
+        try {
+            ProductDTO repriced = productService.findById(1L);
+            repriced.setPrice(1.5);
+            repriced.getCategories().add(new CategoryDTO(3L, null));
+            ProductDTO unknownId = Factory.createProductDTO();
+            unknownId.setId(nonExistingId);
+            ProductDTO unknownCategory = Factory.createProductDTO();
+            unknownCategory.setId(2L);
+            unknownCategory.getCategories().add(new CategoryDTO(nonExistingCategoryId, "Nope"));
+            ProductDTO withoutId = Factory.createProductDTO();
+            withoutId.setId(null);
+
+            List<BatchItemResultDTO> results = service.updateAll(List.of(repriced, unknownId, unknownCategory, withoutId));
+
+            Assertions.assertEquals(BatchItemResultDTO.UPDATED, results.get(0).getStatus());
+            Assertions.assertEquals(BatchItemResultDTO.FAILED, results.get(1).getStatus());
+            Assertions.assertEquals(nonExistingId, results.get(1).getId());
+            Assertions.assertEquals(BatchItemResultDTO.FAILED, results.get(2).getStatus());
+            Assertions.assertEquals(BatchItemResultDTO.FAILED, results.get(3).getStatus());
+            ProductDTO updated = productService.findById(1L);
+            Assertions.assertEquals(1.5, updated.getPrice());
+            Assertions.assertEquals(Set.of(2L, 3L),
+                    updated.getCategories().stream().map(CategoryDTO::getId).collect(Collectors.toSet()));
+        } finally {
+            productService.updateProduct(1L, original);
+        }
+    }
+
+    @Test
+    void importFromShouldInsertValidLinesAndReportInvalidOnesWhenNdjson() throws Exception {
+        long before = repository.count();
+        String body = "{\"name\":\"Feed A\",\"price\":10.0,\"categories\":[{\"id\":1}]}\n"
+                + "not json\n"
+                + "\n"
+                + "{\"name\":\"Feed B\",\"price\":20.0,\"categories\":[{\"id\":" + nonExistingCategoryId + "}]}\n"
+                + "{\"name\":\"Feed C\",\"price\":30.0}\n";
+
+        ImportResultDTO result = service.importFrom(new StringReader(body), FileFormat.NDJSON);
+
+        Assertions.assertEquals(4, result.getProcessed());
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(2, result.getFailed());
+        Assertions.assertEquals(2, result.getErrors().get(0).getIndex());
+        Assertions.assertEquals(before + 2, repository.count());
+    }
+
+    @Test
+    void importFromShouldParseQuotedFieldsWhenCsv() throws Exception {
+        String body = "name,description,price,imgUrl,date,categories\r\n"
+                + "\"Feed, \"\"quoted\"\"\",\"line one\nline two\",15.5,,2020-07-14T10:00:00Z,1;3\r\n"
+                + "Feed plain,plain,abc,,,\r\n";
+
+        ImportResultDTO result = service.importFrom(new StringReader(body), FileFormat.CSV);
+
+        Assertions.assertEquals(2, result.getProcessed());
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(2, result.getErrors().get(0).getIndex());
+        Assertions.assertEquals(1, result.getChunks());
+    }
+
+    @Test
+    void importFromShouldReportRecordWithNullCategoriesWhenNdjson() throws Exception {
+        String body = "{\"name\":\"Feed A\",\"price\":10.0,\"categories\":null}\n"
+                + "{\"name\":\"Feed B\",\"price\":20.0,\"categories\":[{\"id\":1}]}\n";
+
+        ImportResultDTO result = service.importFrom(new StringReader(body), FileFormat.NDJSON);
+
+        Assertions.assertEquals(2, result.getProcessed());
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getErrors().get(0).getIndex());
+    }
+
+    @Test
+    void importFromShouldReportUnterminatedQuoteAsFailedRecordWhenCsv() throws Exception {
+        String body = "name,description,price\n"
+                + "Feed A,plain,10.0\n"
+                + "Feed B,\"never closed,20.0\n"
+                + "Feed C,plain,30.0\n";
+
+        ImportResultDTO result = service.importFrom(new StringReader(body), FileFormat.CSV);
+
+        Assertions.assertEquals(2, result.getProcessed());
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(2, result.getErrors().get(0).getIndex());
+    }
+
+    @Test
+    void exportToShouldIncludeCategoryIdsInBothFormats() throws Exception {
+        ProductDTO product = productService.findById(1L);
+        String ids = product.getCategories().stream().map(CategoryDTO::getId).sorted()
+                .map(String::valueOf).collect(Collectors.joining(";"));
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+
+        long count = service.exportTo(ndjson, FileFormat.NDJSON);
+        service.exportTo(csv, FileFormat.CSV);
+
+        ProductDTO exported = objectMapper.readValue(
+                ndjson.toString(StandardCharsets.UTF_8).lines().findFirst().orElseThrow(), ProductDTO.class);
+        Assertions.assertEquals(1L, exported.getId());
+        Assertions.assertEquals(ids, exported.getCategories().stream().map(x -> String.valueOf(x.getId()))
+                .collect(Collectors.joining(";")));
+        List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        Assertions.assertEquals("id,name,description,price,imgUrl,date,categories", lines.get(0));
+        Assertions.assertTrue(lines.get(1).startsWith("1,") && lines.get(1).endsWith("," + ids));
+        Assertions.assertEquals(count + 1, lines.size());
+    }
+
+    private Set<Long> ids() {
+        return repository.findAll().stream().map(Product::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,98 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.entities.Product;
+import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public class TestProductSearchIndex {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        index = new ProductSearchIndex(null);
+        index.index(1L, "PC Gamer", "Computador para jogos com placa de vídeo dedicada");
+        index.index(2L, "Smart TV", "Televisão com vídeo em alta definição");
+        index.index(3L, "Macbook Pro", "Notebook para trabalho e jogos leves");
+    }
+
+    @Test
+    void tokenizeShouldLowercaseAndStripAccents() {
+        Assertions.assertEquals(List.of("eletronicos", "e", "video"), ProductSearchIndex.tokenize("Eletrônicos e VÍDEO!"));
+    }
+
+    @Test
+    void searchShouldMatchRegardlessOfAccentsAndCase() {
+        ProductSearchIndex.SearchResult result = index.search("VIDEO", 0, 10);
+
+        Assertions.assertEquals(2, result.getTotal());
+        Assertions.assertTrue(result.getIds().containsAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void searchShouldRankNameMatchesFirst() {
+        index.index(4L, "Cadeira", "Cadeira gamer ergonomica");
+
+        ProductSearchIndex.SearchResult result = index.search("gamer", 0, 10);
+
+        Assertions.assertEquals(List.of(1L, 4L), result.getIds());
+    }
+
+    @Test
+    void searchShouldRankDocumentsMatchingMoreTermsFirst() {
+        ProductSearchIndex.SearchResult result = index.search("jogos video", 0, 10);
+
+        Assertions.assertEquals(1L, result.getIds().get(0));
+        Assertions.assertEquals(3, result.getTotal());
+    }
+
+    @Test
+    void searchShouldPageResults() {
+        ProductSearchIndex.SearchResult result = index.search("jogos video", 1, 1);
+
+        Assertions.assertEquals(1, result.getIds().size());
+        Assertions.assertEquals(3, result.getTotal());
+    }
+
+    @Test
+    void indexShouldReplacePreviousVersionOfDocument() {
+        index.index(2L, "Smart TV", "Televisão 4K");
+
+        Assertions.assertEquals(List.of(1L), index.search("video", 0, 10).getIds());
+        Assertions.assertEquals(3, index.size());
+    }
+
+    @Test
+    void removeShouldDropDocumentFromResults() {
+        index.remove(1L);
+
+        Assertions.assertEquals(List.of(2L), index.search("video", 0, 10).getIds());
+        Assertions.assertTrue(index.search("gamer", 0, 10).getIds().isEmpty());
+    }
+
+    @Test
+    void rebuildShouldKeepServingOldIndexWhileLoadingAndKeepChangesMadeMeanwhile() {
+        ProductRepository repository = Mockito.mock(ProductRepository.class);
+        ProductSearchIndex rebuilt = new ProductSearchIndex(repository);
+        rebuilt.index(1L, "PC Gamer", "Computador para jogos");
+        Mockito.when(repository.findAfter(ArgumentMatchers.eq("id"), ArgumentMatchers.eq(Sort.Direction.ASC),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt())).thenAnswer(invocation -> {
+            Assertions.assertEquals(List.of(1L), rebuilt.search("gamer", 0, 10).getIds());
+            rebuilt.index(3L, "Cadeira", "Cadeira gamer");
+            return List.of(new Product(2L, "Smart TV", "Televisão", 100.0, null, null));
+        });
+
+        rebuilt.rebuild();
+
+        Assertions.assertEquals(2, rebuilt.size());
+        Assertions.assertEquals(List.of(3L), rebuilt.search("gamer", 0, 10).getIds());
+        Assertions.assertEquals(List.of(2L), rebuilt.search("televisao", 0, 10).getIds());
+    }
+}
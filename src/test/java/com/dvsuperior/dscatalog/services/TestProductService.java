@@ -16,6 +16,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
@@ -41,6 +42,12 @@ public class TestProductService {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
     private Long existingId;
     private Long noExistingId;
     private Long dependentId;
@@ -0,0 +1,79 @@
+package com.dvsuperior.dscatalog.services;
+
+import com.dvsuperior.dscatalog.DTO.ProductDTO;
+import com.dvsuperior.dscatalog.entities.Category;
+import com.dvsuperior.dscatalog.entities.Product;
+import com.dvsuperior.dscatalog.repositories.CategoryRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManagerFactory;
+
+@SpringBootTest
+public class TestProductServiceSecondLevelCache {
+
+    private static final String CATEGORY_REGION = Category.class.getName();
+    private static final String CATEGORIES_REGION = Product.class.getName() + ".categories";
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long existingId;
+
+    @BeforeEach
+    void setUp() {
+        // JPA evictAll() only clears entity regions; collection regions may still hold soft locks
+        // left by updates that other tests rolled back
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        existingId = 1L;
+    }
+
+    @Test
+    void findByIdShouldReadCategoriesFromSecondLevelCacheAfterFirstCall() {
+        ProductDTO first = service.findById(existingId);
+        statistics.clear();
+
+        ProductDTO second = service.findById(existingId);
+
+        // only the tb_product row is selected; the link collection and categories are cache hits
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getCollectionFetchCount());
+        Assertions.assertEquals(0, statistics.getEntityFetchCount());
+        Assertions.assertEquals(1, statistics.getDomainDataRegionStatistics(CATEGORIES_REGION).getHitCount());
+        Assertions.assertEquals(first.getCategories().size(),
+                statistics.getDomainDataRegionStatistics(CATEGORY_REGION).getHitCount());
+        Assertions.assertEquals(first.getCategories().size(), second.getCategories().size());
+    }
+
+    @Test
+    void categoryPageShouldBeServedFromQueryCacheUntilCategoriesChange() {
+        categoryRepository.findAll(PageRequest.of(0, 10));
+        statistics.clear();
+
+        categoryRepository.findAll(PageRequest.of(0, 10));
+
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1, statistics.getQueryCacheHitCount());
+
+        Category category = categoryRepository.save(new Category(0L, "Games"));
+        statistics.clear();
+        categoryRepository.findAll(PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        categoryRepository.delete(category);
+    }
+}
@@ -1,9 +1,11 @@
 package com.dvsuperior.dscatalog.services;
 
+import com.dvsuperior.dscatalog.DTO.CursorPageDTO;
 import com.dvsuperior.dscatalog.DTO.ProductDTO;
 import com.dvsuperior.dscatalog.entities.Product;
 import com.dvsuperior.dscatalog.factories.Factory;
 import com.dvsuperior.dscatalog.repositories.ProductRepository;
+import com.dvsuperior.dscatalog.services.exceptions.InvalidRequestException;
 import com.dvsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,7 +14,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @SpringBootTest
 public class integrationTestProductService {
@@ -76,6 +80,80 @@ public class integrationTestProductService {
         Assertions.assertEquals(countTotalProducts, result.getTotalElements());
     }
 
+    @Test
+    void findAllAfterShouldWalkAllProductsInSortOrderWhenSortByName() {
+        List<Long> expected = service.findAllPaged(PageRequest.of(0, 1000, Sort.by("name", "id")))
+                .map(ProductDTO::getId).getContent();
+
+        List<Long> walked = new ArrayList<>();
+        CursorPageDTO<ProductDTO> result = service.findAllAfter("", PageRequest.of(0, 10, Sort.by("name")));
+        walked.addAll(result.getContent().stream().map(ProductDTO::getId).collect(Collectors.toList()));
+        while (result.getNext() != null) {
+            result = service.findAllAfter(result.getNext(), PageRequest.of(0, 10));
+            walked.addAll(result.getContent().stream().map(ProductDTO::getId).collect(Collectors.toList()));
+        }
+
+        Assertions.assertEquals(expected, walked);
+    }
+
+    @Test
+    void findAllAfterShouldWalkAllProductsWhenSortByPriceDesc() {
+        List<Long> expected = service.findAllPaged(PageRequest.of(0, 1000,
+                        Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id"))))
+                .map(ProductDTO::getId).getContent();
+
+        List<Long> walked = new ArrayList<>();
+        CursorPageDTO<ProductDTO> result = service.findAllAfter(null, PageRequest.of(0, 7, Sort.by("price").descending()));
+        walked.addAll(result.getContent().stream().map(ProductDTO::getId).collect(Collectors.toList()));
+        while (result.getNext() != null) {
+            result = service.findAllAfter(result.getNext(), PageRequest.of(0, 7));
+            walked.addAll(result.getContent().stream().map(ProductDTO::getId).collect(Collectors.toList()));
+        }
+
+        Assertions.assertEquals(expected, walked);
+    }
+
+    @Test
+    void findAllAfterShouldWalkProductsWithoutPriceLastInBothDirections() {
+        List<Long> unpriced = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product entity = Factory.createProduct();
+            entity.setId(null);
+            entity.setPrice(null);
+            entity.getCategories().clear();
+            unpriced.add(repository.save(entity).getId());
+        }
+        try {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                List<Long> expected = new ArrayList<>(service.findAllPaged(PageRequest.of(0, 1000,
+                                Sort.by(new Sort.Order(direction, "price"), new Sort.Order(direction, "id"))))
+                        .map(ProductDTO::getId).filter(x -> !unpriced.contains(x)).toList());
+                expected.addAll(direction.isAscending() ? unpriced : List.of(unpriced.get(2), unpriced.get(1), unpriced.get(0)));
+
+                List<Long> walked = new ArrayList<>();
+                // pages of 2 put a cursor on a null price
+                CursorPageDTO<ProductDTO> result = service.findAllAfter(null, PageRequest.of(0, 2, Sort.by(direction, "price")));
+                walked.addAll(result.getContent().stream().map(ProductDTO::getId).collect(Collectors.toList()));
+                while (result.getNext() != null) {
+                    result = service.findAllAfter(result.getNext(), PageRequest.of(0, 2));
+                    walked.addAll(result.getContent().stream().map(ProductDTO::getId).collect(Collectors.toList()));
+                }
+
+                Assertions.assertEquals(expected, walked);
+            }
+        } finally {
+            repository.deleteAllById(unpriced);
+        }
+    }
+
+    @Test
+    void findAllAfterShouldThrowInvalidRequestExceptionWhenCursorIsInvalid() {
+
+        Assertions.assertThrows(InvalidRequestException.class, () -> {
+            service.findAllAfter("not-a-cursor", PageRequest.of(0, 10));
+        });
+    }
+
     @Test
     void deleteProductShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
 